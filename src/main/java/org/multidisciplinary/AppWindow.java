@@ -9,9 +9,13 @@ import java.awt.event.ComponentAdapter;
 import java.awt.event.ComponentEvent;
 import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Optional;
 import java.util.Vector;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
 
 /**
  * Main application window.
@@ -19,6 +23,9 @@ import java.util.Vector;
  * It allows the user to load a WAV file, then displays:
  * - The waveform (amplitude vs time)
  * - The frequency spectrum (amplitude vs frequency) using FFT.
+ * - The scalogram (frequency vs time) using a Morlet wavelet transform.
+ * - A scrolling spectrogram of the live input while recording.
+ * - The energy in the S1/S2 and murmur bands, with an alert when the murmur band is loud.
  * It connects everything together: user interaction, audio loading, and plotting.
  */
 public class AppWindow extends JFrame {
@@ -29,14 +36,31 @@ public class AppWindow extends JFrame {
 
     private JComboBox<Mixer.Info> inputDeviceComboBox;
     private JButton startLiveButton;
+    private JButton simulateButton;
     private JButton stopLiveButton;
     private JLabel statusLabel;
+    private JCheckBox singlePrecisionCheckBox;
+    private JLabel bandEnergyLabel;
 
     private Plot2DPanel waveformPlot;
     private Plot2DPanel frequencyPlot;
+    private ScalogramPanel scalogramPanel;
+    private SpectrogramPanel spectrogramPanel;
+    private SwingWorker<Void, Runnable> scalogramWorker;
 
     private final int WAVEFORM_WINDOW_SIZE = 4096 * 16;
     private LinkedList<Double> waveformWindowData = new LinkedList<>();
+    private final float[] floatWaveformWindow = new float[WAVEFORM_WINDOW_SIZE];
+    private int floatWaveformFill = 0;
+
+    private static final double SCALOGRAM_MIN_FREQUENCY = 20;
+    private static final double SCALOGRAM_MAX_FREQUENCY = 800;
+    private static final int SCALOGRAM_ROWS = 32;
+    private static final int SCALOGRAM_CHUNK_SIZE = 1 << 16;
+
+    private static final int BAND_BLOCKS_PER_SECOND = 25;
+    private static final int MURMUR_BAND = 1;
+    private static final double MURMUR_THRESHOLD = 1e-4; // mean power, i.e. -40 dB
 
     /**
      * Constructor for initializing the AppWindow.
@@ -64,18 +88,29 @@ public class AppWindow extends JFrame {
         frequencyPlot = createPlot("Frequency (Hz)", "Magnitude");
         frequencyPlot.setFixedBounds(0, 0, 3000);
 
+        scalogramPanel = new ScalogramPanel();
+        spectrogramPanel = new SpectrogramPanel();
+
         final JLabel fileNameLabel = new JLabel("No file loaded.");
         fileNameLabel.setHorizontalAlignment(SwingConstants.CENTER);
 
         statusLabel = new JLabel("Status: Idle");
         statusLabel.setHorizontalAlignment(SwingConstants.CENTER);
 
+        bandEnergyLabel = new JLabel(" ");
+        bandEnergyLabel.setHorizontalAlignment(SwingConstants.CENTER);
+
+        singlePrecisionCheckBox = new JCheckBox("Float32");
+        singlePrecisionCheckBox.setToolTipText("Decode and analyze samples as 32-bit floats, which uses less memory per sample");
+
         final JButton loadButton = new JButton("Load WAV File");
         loadButton.addActionListener(e -> chooseFile()
-                .flatMap(this::readSamples)
+                .flatMap(file -> readSamples(file, singlePrecisionCheckBox.isSelected()))
                 .ifPresent(samples -> {
                     renderWaveform(waveformPlot, samples);
                     renderFrequencySpectrum(frequencyPlot, samples);
+                    renderScalogram(scalogramPanel, samples);
+                    reportBandEnergies(scanBandEnergies(samples));
                     playAudio();
                 }));
 
@@ -86,24 +121,36 @@ public class AppWindow extends JFrame {
         populateInputDevices();
 
         startLiveButton = new JButton("Record");
+        simulateButton = new JButton("Simulate");
+        simulateButton.setToolTipText("Run the live view on a synthetic heart sound with a systolic murmur");
         stopLiveButton = new JButton("Stop");
         stopLiveButton.setEnabled(false);
 
-        startLiveButton.addActionListener(e -> startRecording(waveformPlot, frequencyPlot));
+        startLiveButton.addActionListener(e -> startRecording(waveformPlot, frequencyPlot, spectrogramPanel));
+        simulateButton.addActionListener(e -> startRecording(new SyntheticHeartSource().withMurmur(0.05),
+                waveformPlot, frequencyPlot, spectrogramPanel));
         stopLiveButton.addActionListener(e -> stopRecording());
 
         final JPanel buttonPanel = new JPanel();
         buttonPanel.add(startLiveButton);
+        buttonPanel.add(simulateButton);
         buttonPanel.add(stopLiveButton);
         buttonPanel.add(loadButton);
         buttonPanel.add(playButton);
+        buttonPanel.add(singlePrecisionCheckBox);
 
         final JPanel topPanel = new JPanel(new BorderLayout());
         topPanel.add(fileNameLabel, BorderLayout.CENTER);
         topPanel.add(buttonPanel, BorderLayout.SOUTH);
+        topPanel.add(bandEnergyLabel, BorderLayout.NORTH);
+
+        final JTabbedPane analysisTabs = new JTabbedPane();
+        analysisTabs.addTab("Spectrum", new JScrollPane(frequencyPlot));
+        analysisTabs.addTab("Scalogram", scalogramPanel);
+        analysisTabs.addTab("Spectrogram", spectrogramPanel);
 
         final JSplitPane splitPane = new JSplitPane(JSplitPane.VERTICAL_SPLIT,
-                new JScrollPane(waveformPlot), new JScrollPane(frequencyPlot));
+                new JScrollPane(waveformPlot), analysisTabs);
 
         add(topPanel, BorderLayout.NORTH);
         add(splitPane, BorderLayout.CENTER);
@@ -145,14 +192,18 @@ public class AppWindow extends JFrame {
     /**
      * Reads the samples from the selected WAV file.
      *
-     * @param file The file to read.
+     * @param file            The file to read.
+     * @param singlePrecision Whether to decode the samples as floats instead of doubles.
      * @return An Optional containing the audio samples, or empty if an error occurred.
      */
-    private Optional<double[]> readSamples(final File file) {
+    private Optional<LoadedSamples> readSamples(final File file, final boolean singlePrecision) {
         try {
             updateFileNameLabel(file.getName());
             audioPlayer.loadAudio(file);
-            return Optional.of(AudioProcessor.readWavSamples(file));
+            final int sampleRate = AudioProcessor.readSampleRate(file);
+            return Optional.of(singlePrecision
+                    ? new LoadedSamples(AudioProcessor.readWavSamplesFloat(file), sampleRate)
+                    : new LoadedSamples(AudioProcessor.readWavSamples(file), sampleRate));
         } catch (IOException | UnsupportedAudioFileException | LineUnavailableException e) {
             JOptionPane.showMessageDialog(this, "Error loading WAV file: " + e.getMessage());
             return Optional.empty();
@@ -175,8 +226,12 @@ public class AppWindow extends JFrame {
      * @param plot    The Plot2DPanel to render the waveform.
      * @param samples The audio samples to plot.
      */
-    private void renderWaveform(final Plot2DPanel plot, final double[] samples) {
-        PlotManager.updateStaticWaveformPlot(plot, samples);
+    private void renderWaveform(final Plot2DPanel plot, final LoadedSamples samples) {
+        if (samples.isSinglePrecision()) {
+            PlotManager.updateStaticWaveformPlot(plot, samples.floats);
+        } else {
+            PlotManager.updateStaticWaveformPlot(plot, samples.doubles);
+        }
     }
 
     /**
@@ -185,11 +240,155 @@ public class AppWindow extends JFrame {
      * @param plot    The Plot2DPanel to render the frequency spectrum.
      * @param samples The audio samples to analyze and plot.
      */
-    private void renderFrequencySpectrum(final Plot2DPanel plot, final double[] samples) {
-        final double[] magnitudes = FFT.computeMagnitude(samples);
-        final int SAMPLE_RATE = 44100;
-        final double[] frequencies = FFT.computeFrequencies(magnitudes.length, SAMPLE_RATE);
-        PlotManager.updateStaticSpectrumPlot(plot, frequencies, magnitudes);
+    private void renderFrequencySpectrum(final Plot2DPanel plot, final LoadedSamples samples) {
+        if (samples.isSinglePrecision()) {
+            final float[] magnitudes = FFT.computeMagnitude(samples.floats);
+            PlotManager.updateStaticSpectrumPlot(plot, magnitudes, samples.sampleRate);
+        } else {
+            final double[] magnitudes = FFT.computeMagnitude(samples.doubles);
+            final double[] frequencies = FFT.computeFrequencies(magnitudes.length, samples.sampleRate);
+            PlotManager.updateStaticSpectrumPlot(plot, frequencies, magnitudes);
+        }
+    }
+
+    /**
+     * Renders the scalogram of the given audio samples.
+     * The transform runs chunk by chunk, so long files do not need a full time-frequency matrix in memory.
+     * The analysis frequencies stop below the Nyquist frequency of low-rate recordings.
+     *
+     * @param panel   The ScalogramPanel to render into.
+     * @param samples The audio samples to analyze.
+     */
+    private void renderScalogram(final ScalogramPanel panel, final LoadedSamples samples) {
+        final int sampleRate = samples.sampleRate;
+        final double[] frequencies = Scalogram.logFrequencies(SCALOGRAM_MIN_FREQUENCY,
+                Math.min(SCALOGRAM_MAX_FREQUENCY, sampleRate / 2.0), SCALOGRAM_ROWS);
+        renderScalogram(panel, samples.length(), sampleRate, frequencies, listener -> {
+            if (samples.isSinglePrecision()) {
+                Scalogram.computeChunked(samples.floats, sampleRate, frequencies, SCALOGRAM_CHUNK_SIZE, listener);
+            } else {
+                Scalogram.computeChunked(samples.doubles, sampleRate, frequencies, SCALOGRAM_CHUNK_SIZE, listener);
+            }
+        });
+    }
+
+    /**
+     * Runs a scalogram transform on a background thread, so a long file does not freeze the window.
+     * Columns are handed to the panel on the Event Dispatch Thread as they are computed.
+     * A scalogram still running for a previously loaded file is cancelled.
+     *
+     * @param panel       The ScalogramPanel to render into.
+     * @param length      The length of the signal in samples.
+     * @param sampleRate  The sampling rate of the signal in Hz.
+     * @param frequencies The analysis frequencies of the transform in Hz.
+     * @param transform   Runs the transform, delivering columns to the given listener.
+     */
+    private void renderScalogram(final ScalogramPanel panel, final int length, final int sampleRate,
+                                 final double[] frequencies, final Consumer<Scalogram.Listener> transform) {
+        if (scalogramWorker != null) {
+            scalogramWorker.cancel(false);
+        }
+        panel.begin(frequencies, length, sampleRate);
+
+        scalogramWorker = new SwingWorker<>() {
+            @Override
+            protected Void doInBackground() {
+                transform.accept((startSample, magnitudes) -> {
+                    if (isCancelled()) {
+                        throw new CancellationException();
+                    }
+                    publish(() -> panel.onColumns(startSample, magnitudes));
+                });
+                return null;
+            }
+
+            @Override
+            protected void process(final List<Runnable> columns) {
+                if (!isCancelled()) {
+                    columns.forEach(Runnable::run);
+                }
+            }
+
+            @Override
+            protected void done() {
+                if (!isCancelled()) {
+                    panel.finish();
+                }
+            }
+        };
+        scalogramWorker.execute();
+    }
+
+    /**
+     * Computes the band energies of the given audio samples, in blocks of 1/{@value #BAND_BLOCKS_PER_SECOND} s.
+     *
+     * @param samples The audio samples to analyze.
+     * @return The energies indexed by [band][block].
+     */
+    private double[][] scanBandEnergies(final LoadedSamples samples) {
+        final int sampleRate = samples.sampleRate;
+        final int hopSize = sampleRate / BAND_BLOCKS_PER_SECOND;
+        return samples.isSinglePrecision()
+                ? BandEnergyTracker.scan(samples.floats, sampleRate, hopSize, BandEnergyTracker.pcgBands())
+                : BandEnergyTracker.scan(samples.doubles, sampleRate, hopSize, BandEnergyTracker.pcgBands());
+    }
+
+    /**
+     * Summarizes the band energies of a loaded file: the mean level of each band,
+     * and how often the murmur band exceeds the alert threshold.
+     *
+     * @param energies The energies indexed by [band][block], as returned by {@link BandEnergyTracker#scan}.
+     */
+    private void reportBandEnergies(final double[][] energies) {
+        final BandEnergyTracker.Band[] bands = BandEnergyTracker.pcgBands();
+        final StringBuilder text = new StringBuilder();
+        for (int b = 0; b < bands.length; b++) {
+            final double mean = Arrays.stream(energies[b]).average().orElse(0);
+            text.append(String.format("%s: %.1f dB   ", bands[b].getName(), toDecibels(mean)));
+        }
+        final long loud = Arrays.stream(energies[MURMUR_BAND]).filter(e -> e > MURMUR_THRESHOLD).count();
+        final int blocks = Math.max(1, energies[MURMUR_BAND].length);
+        text.append(String.format("Murmur band above threshold in %.0f%% of blocks", 100.0 * loud / blocks));
+        bandEnergyLabel.setForeground(loud > 0 ? Color.RED : Color.BLACK);
+        bandEnergyLabel.setText(text.toString());
+    }
+
+    /**
+     * Creates a tracker that shows the live band energies and flags a loud murmur band.
+     *
+     * @param sampleRate The sampling rate of the recorded signal.
+     * @return A new BandEnergyTracker.
+     */
+    private BandEnergyTracker createLiveBandTracker(final int sampleRate) {
+        final BandEnergyTracker.Band[] bands = BandEnergyTracker.pcgBands();
+        final boolean[] murmurAlert = { false };
+        final BandEnergyTracker tracker = new BandEnergyTracker(sampleRate, sampleRate / BAND_BLOCKS_PER_SECOND, bands,
+                new BandEnergyTracker.Listener() {
+                    @Override
+                    public void onEnergies(final long endSample, final double[] energies) {
+                        final StringBuilder text = new StringBuilder();
+                        for (int b = 0; b < bands.length; b++) {
+                            text.append(String.format("%s: %.1f dB   ", bands[b].getName(), toDecibels(energies[b])));
+                        }
+                        if (murmurAlert[0]) {
+                            text.append("Murmur band above threshold");
+                        }
+                        final String label = text.toString();
+                        SwingUtilities.invokeLater(() -> bandEnergyLabel.setText(label));
+                    }
+
+                    @Override
+                    public void onThresholdCrossed(final BandEnergyTracker.Band band, final double energy, final boolean above) {
+                        murmurAlert[0] = above;
+                        SwingUtilities.invokeLater(() -> bandEnergyLabel.setForeground(above ? Color.RED : Color.BLACK));
+                    }
+                });
+        tracker.setThreshold(MURMUR_BAND, MURMUR_THRESHOLD);
+        return tracker;
+    }
+
+    private static double toDecibels(final double power) {
+        return 10 * Math.log10(Math.max(power, 1e-12));
     }
 
     /**
@@ -259,29 +458,75 @@ public class AppWindow extends JFrame {
         PlotManager.updateWaveformPlot(plot, plotData, WAVEFORM_WINDOW_SIZE);
     }
 
-    private void processFFT(Plot2DPanel plot, double[] fftData) {
+    private void updateLiveWaveform(Plot2DPanel plot, float[] newSamples) {
+        final int keep = Math.min(newSamples.length, WAVEFORM_WINDOW_SIZE);
+        final int overflow = Math.max(0, floatWaveformFill + keep - WAVEFORM_WINDOW_SIZE);
+        if (overflow > 0) {
+            System.arraycopy(floatWaveformWindow, overflow, floatWaveformWindow, 0, floatWaveformFill - overflow);
+            floatWaveformFill -= overflow;
+        }
+        System.arraycopy(newSamples, newSamples.length - keep, floatWaveformWindow, floatWaveformFill, keep);
+        floatWaveformFill += keep;
+        PlotManager.updateWaveformPlot(plot, Arrays.copyOf(floatWaveformWindow, floatWaveformFill), WAVEFORM_WINDOW_SIZE);
+    }
+
+    private void processFFT(Plot2DPanel plot, SpectrogramPanel spectrogram, float[] fftData) {
+        final float[] magnitudes = FFT.computeMagnitude(fftData);
+        PlotManager.updateSpectrumPlot(plot, magnitudes, (int) audioFormat.getSampleRate());
+        spectrogram.addSamples(fftData, (int) audioFormat.getSampleRate());
+    }
+
+    private void processFFT(Plot2DPanel plot, SpectrogramPanel spectrogram, double[] fftData) {
         final double[] magnitudes = FFT.computeMagnitude(fftData);
         final double[] frequencies = FFT.computeFrequencies(magnitudes.length, (int) audioFormat.getSampleRate());
         PlotManager.updateSpectrumPlot(plot, frequencies, magnitudes);
+        spectrogram.addSamples(fftData, (int) audioFormat.getSampleRate());
     }
 
-    private void startRecording(Plot2DPanel wavePlot, Plot2DPanel freqPlot) {
+    private void startRecording(Plot2DPanel wavePlot, Plot2DPanel freqPlot, SpectrogramPanel spectrogram) {
         Mixer.Info selectedMixer = (Mixer.Info) inputDeviceComboBox.getSelectedItem();
         if (selectedMixer == null) {
             JOptionPane.showMessageDialog(this, "Please select an input device.");
             return;
         }
+        startRecording(new LineSampleSource(selectedMixer, getDesiredAudioFormat()), wavePlot, freqPlot, spectrogram);
+    }
+
+    private void startRecording(SampleSource source, Plot2DPanel wavePlot, Plot2DPanel freqPlot, SpectrogramPanel spectrogram) {
+        audioFormat = source.getFormat();
         startLiveButton.setEnabled(false);
+        simulateButton.setEnabled(false);
         stopLiveButton.setEnabled(true);
+        singlePrecisionCheckBox.setEnabled(false);
         statusLabel.setText("Status: Recording...");
 
         waveformWindowData.clear();
-
-        audioRecorder = new AudioRecorder(samples -> {
-            updateLiveWaveform(wavePlot, samples);
-            processFFT(freqPlot, samples);
-        });
-        audioRecorder.startRecording(selectedMixer, audioFormat);
+        floatWaveformFill = 0;
+        spectrogram.clear();
+
+        final BandEnergyTracker bandTracker = createLiveBandTracker((int) audioFormat.getSampleRate());
+        bandEnergyLabel.setForeground(Color.BLACK);
+
+        if (singlePrecisionCheckBox.isSelected()) {
+            audioRecorder = AudioRecorder.singlePrecision(samples -> {
+                updateLiveWaveform(wavePlot, samples);
+                processFFT(freqPlot, spectrogram, samples);
+                bandTracker.process(samples);
+            });
+        } else {
+            audioRecorder = new AudioRecorder(samples -> {
+                updateLiveWaveform(wavePlot, samples);
+                processFFT(freqPlot, spectrogram, samples);
+                bandTracker.process(samples);
+            });
+        }
+        final AudioRecorder recorder = audioRecorder;
+        // A finite source (e.g. a replayed file) ends by itself; reset the controls like Stop does.
+        audioRecorder.startRecording(source, () -> SwingUtilities.invokeLater(() -> {
+            if (audioRecorder == recorder) {
+                stopRecording();
+            }
+        }));
     }
 
     private void stopRecording() {
@@ -289,7 +534,39 @@ public class AppWindow extends JFrame {
             audioRecorder.stopRecording();
         }
         startLiveButton.setEnabled(true);
+        simulateButton.setEnabled(true);
         stopLiveButton.setEnabled(false);
+        singlePrecisionCheckBox.setEnabled(true);
         statusLabel.setText("Status: Idle");
     }
-}
\ No newline at end of file
+
+    /**
+     * The samples of a loaded file, decoded in the precision selected when it was loaded,
+     * together with the file's sampling rate. Exactly one of the arrays is set.
+     */
+    private static final class LoadedSamples {
+        private final float[] floats;
+        private final double[] doubles;
+        private final int sampleRate;
+
+        LoadedSamples(final float[] samples, final int sampleRate) {
+            this.floats = samples;
+            this.doubles = null;
+            this.sampleRate = sampleRate;
+        }
+
+        LoadedSamples(final double[] samples, final int sampleRate) {
+            this.floats = null;
+            this.doubles = samples;
+            this.sampleRate = sampleRate;
+        }
+
+        boolean isSinglePrecision() {
+            return floats != null;
+        }
+
+        int length() {
+            return isSinglePrecision() ? floats.length : doubles.length;
+        }
+    }
+}
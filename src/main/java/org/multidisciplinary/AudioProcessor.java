@@ -24,37 +24,98 @@ public final class AudioProcessor {
     public static double[] readWavSamples(File file) throws IOException, UnsupportedAudioFileException {
         try (AudioInputStream audioStream = AudioSystem.getAudioInputStream(file)) {
             final AudioFormat format = audioStream.getFormat();
+            final byte[] buffer = readAllFrames(audioStream);
+            final int frameSize = format.getFrameSize();
+            final double[] samples = new double[buffer.length / frameSize];
 
-            if (format.getEncoding() != AudioFormat.Encoding.PCM_SIGNED) {
-                throw new UnsupportedAudioFileException("Only PCM signed WAV files are supported.");
+            for (int i = 0, s = 0; s < samples.length; i += frameSize, s++) {
+                samples[s] = decodeSample(buffer, i, format);
             }
 
-            final int bytesPerSample = format.getSampleSizeInBits() / 8;
-            final long numFrames = audioStream.getFrameLength();
-            final int totalSamples = (int) numFrames;
-            final int frameSize = format.getFrameSize();
-            final byte[] buffer = new byte[(int) (numFrames * frameSize)];
-            final int bytesRead = audioStream.read(buffer);
+            return samples;
+        }
+    }
 
-            if (bytesRead != buffer.length) {
-                throw new IOException("Incomplete WAV file read.");
-            }
+    /**
+     * Single-precision variant of {@link #readWavSamples(File)}.
+     * Every 16-bit (or narrower) PCM sample is represented exactly by a float,
+     * so the sample array takes half the space of a double[] without losing information.
+     *
+     * @param file The .wav file to read.
+     * @return A float[] array containing amplitudes in the range [-1, 1].
+     * @throws IOException If an I/O error occurs.
+     * @throws UnsupportedAudioFileException If the audio format is not PCM signed.
+     */
+    public static float[] readWavSamplesFloat(File file) throws IOException, UnsupportedAudioFileException {
+        try (AudioInputStream audioStream = AudioSystem.getAudioInputStream(file)) {
+            final AudioFormat format = audioStream.getFormat();
+            final byte[] buffer = readAllFrames(audioStream);
+            final int frameSize = format.getFrameSize();
+            final float[] samples = new float[buffer.length / frameSize];
 
-            final double[] samples = new double[totalSamples];
-
-            for (int i = 0, s = 0; i < buffer.length; i += frameSize, s++) {
-                int sample = 0;
-                // We only take the first channel for mono representation
-                for (int b = 0; b < bytesPerSample; b++) {
-                    sample |= (buffer[i + b] & 0xFF) << (8 * b);
-                }
-                if (bytesPerSample == 2 && sample >= 32768) {
-                    sample -= 65536;
-                }
-                samples[s] = sample / Math.pow(2, format.getSampleSizeInBits() - 1);
+            for (int i = 0, s = 0; s < samples.length; i += frameSize, s++) {
+                samples[s] = (float) decodeSample(buffer, i, format);
             }
 
             return samples;
         }
     }
+
+    /**
+     * Reads the sampling rate of a WAV file from its header.
+     *
+     * @param file The .wav file to inspect.
+     * @return The sampling rate in Hz.
+     * @throws IOException If an I/O error occurs.
+     * @throws UnsupportedAudioFileException If the file is not a recognized audio file.
+     */
+    public static int readSampleRate(File file) throws IOException, UnsupportedAudioFileException {
+        return Math.round(AudioSystem.getAudioFileFormat(file).getFormat().getSampleRate());
+    }
+
+    /**
+     * Validates the stream format and reads every frame of the stream into memory.
+     *
+     * @param audioStream The stream to read.
+     * @return The raw frame bytes.
+     * @throws IOException If an I/O error occurs or the stream ends early.
+     * @throws UnsupportedAudioFileException If the audio format is not PCM signed.
+     */
+    private static byte[] readAllFrames(AudioInputStream audioStream) throws IOException, UnsupportedAudioFileException {
+        final AudioFormat format = audioStream.getFormat();
+
+        if (format.getEncoding() != AudioFormat.Encoding.PCM_SIGNED) {
+            throw new UnsupportedAudioFileException("Only PCM signed WAV files are supported.");
+        }
+
+        final long numFrames = audioStream.getFrameLength();
+        final byte[] buffer = new byte[(int) (numFrames * format.getFrameSize())];
+        final int bytesRead = audioStream.read(buffer);
+
+        if (bytesRead != buffer.length) {
+            throw new IOException("Incomplete WAV file read.");
+        }
+        return buffer;
+    }
+
+    /**
+     * Decodes the first channel of the frame starting at {@code offset} into a normalized amplitude.
+     *
+     * @param buffer The raw frame bytes.
+     * @param offset The byte offset of the frame.
+     * @param format The format of the frame bytes.
+     * @return The amplitude in the range [-1, 1].
+     */
+    private static double decodeSample(byte[] buffer, int offset, AudioFormat format) {
+        final int bytesPerSample = format.getSampleSizeInBits() / 8;
+        int sample = 0;
+        // We only take the first channel for mono representation
+        for (int b = 0; b < bytesPerSample; b++) {
+            sample |= (buffer[offset + b] & 0xFF) << (8 * b);
+        }
+        if (bytesPerSample == 2 && sample >= 32768) {
+            sample -= 65536;
+        }
+        return sample / Math.pow(2, format.getSampleSizeInBits() - 1);
+    }
 }
\ No newline at end of file
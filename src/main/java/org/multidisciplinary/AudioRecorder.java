@@ -2,56 +2,123 @@ package org.multidisciplinary;
 
 import javax.sound.sampled.*;
 
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.io.IOException;
 
 public class AudioRecorder {
     public interface Listener {
         void onSamples(double[] samples);
     }
 
+    /**
+     * Receives captured chunks in single precision, which halves the per-chunk
+     * allocation and is lossless for 8- and 16-bit capture formats.
+     */
+    public interface FloatListener {
+        void onSamples(float[] samples);
+    }
+
     private final Listener listener;
-    private TargetDataLine targetDataLine;
+    private final FloatListener floatListener;
+    private SampleSource sampleSource;
     private Thread recordingThread;
     private volatile boolean isRecording = false;
     private AudioFormat audioFormat;
 
     public AudioRecorder(Listener listener) {
+        this(listener, null);
+    }
+
+    private AudioRecorder(Listener listener, FloatListener floatListener) {
         this.listener = listener;
+        this.floatListener = floatListener;
+    }
+
+    /**
+     * Creates a recorder that delivers captured chunks as {@code float[]}.
+     *
+     * @param floatListener The listener receiving single-precision samples.
+     * @return A new AudioRecorder.
+     */
+    public static AudioRecorder singlePrecision(FloatListener floatListener) {
+        return new AudioRecorder(null, floatListener);
     }
 
     public void startRecording(Mixer.Info mixerInfo, AudioFormat format) {
-        this.audioFormat = format;
+        startRecording(new LineSampleSource(mixerInfo, format));
+    }
+
+    /**
+     * Starts delivering chunks from the given source on a background thread.
+     * Recording ends on {@link #stopRecording()} or when the source is exhausted;
+     * the source is closed in both cases.
+     *
+     * @param source The source to read from, e.g. a capture line, a synthetic signal or a replayed file.
+     */
+    public void startRecording(SampleSource source) {
+        startRecording(source, null);
+    }
+
+    /**
+     * Starts delivering chunks from the given source on a background thread,
+     * see {@link #startRecording(SampleSource)}.
+     *
+     * @param source The source to read from.
+     * @param onEnd  Called when recording ends by itself, because the source is exhausted or fails
+     *               (on the recording thread, or on the caller's thread if the source cannot be opened);
+     *               not called after {@link #stopRecording()}. May be null.
+     */
+    public void startRecording(SampleSource source, Runnable onEnd) {
+        this.sampleSource = source;
+        this.audioFormat = source.getFormat();
         try {
-            DataLine.Info dataLineInfo = new DataLine.Info(TargetDataLine.class, audioFormat);
-            Mixer mixer = AudioSystem.getMixer(mixerInfo);
-            targetDataLine = (TargetDataLine) mixer.getLine(dataLineInfo);
-            targetDataLine.open(audioFormat);
-            targetDataLine.start();
+            sampleSource.open();
             isRecording = true;
 
             recordingThread = new Thread(() -> {
-                byte[] buffer = new byte[targetDataLine.getBufferSize() / 5];
-                while (isRecording) {
-                    int bytesRead = targetDataLine.read(buffer, 0, buffer.length);
-                    if (bytesRead > 0) {
-                        double[] samples = convertBytesToDoubles(buffer, bytesRead, audioFormat);
-                        if (listener != null) {
-                            listener.onSamples(samples);
+                byte[] buffer = new byte[sampleSource.getBufferSize() / 5];
+                try {
+                    while (isRecording) {
+                        int bytesRead = sampleSource.read(buffer, 0, buffer.length);
+                        if (bytesRead < 0) {
+                            break;
+                        }
+                        if (bytesRead > 0) {
+                            if (floatListener != null) {
+                                floatListener.onSamples(convertBytesToFloats(buffer, bytesRead, audioFormat));
+                            } else if (listener != null) {
+                                listener.onSamples(convertBytesToDoubles(buffer, bytesRead, audioFormat));
+                            }
                         }
                     }
+                } catch (IOException e) {
+                    // Closing the source from stopRecording() may interrupt a pending read.
+                    if (isRecording) {
+                        e.printStackTrace();
+                    }
+                } finally {
+                    final boolean endedByItself = isRecording;
+                    isRecording = false;
+                    sampleSource.close();
+                    if (endedByItself && onEnd != null) {
+                        onEnd.run();
+                    }
                 }
             });
             recordingThread.start();
         } catch (Exception e) {
             e.printStackTrace();
+            sampleSource.close();
+            if (onEnd != null) {
+                onEnd.run();
+            }
         }
     }
 
     public void stopRecording() {
         isRecording = false;
-        if (targetDataLine != null) {
-            targetDataLine.stop();
-            targetDataLine.close();
+        // Closing first unblocks a read waiting on a stalled device.
+        if (sampleSource != null) {
+            sampleSource.close();
         }
         if (recordingThread != null) {
             try {
@@ -63,36 +130,55 @@ public class AudioRecorder {
     }
 
     private double[] convertBytesToDoubles(byte[] buffer, int bytesRead, AudioFormat format) {
+        if (!isDecodable(format)) {
+            return new double[0];
+        }
         int bytesPerSample = format.getFrameSize();
-        int numSamples = bytesRead / bytesPerSample;
-        double[] samples = new double[numSamples];
-        boolean bigEndian = format.isBigEndian();
+        double fullScale = 1 << (format.getSampleSizeInBits() - 1);
+        double[] samples = new double[bytesRead / bytesPerSample];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = decodeSample(buffer, i * bytesPerSample, format) / fullScale;
+        }
+        return samples;
+    }
+
+    private float[] convertBytesToFloats(byte[] buffer, int bytesRead, AudioFormat format) {
+        if (!isDecodable(format)) {
+            return new float[0];
+        }
+        int bytesPerSample = format.getFrameSize();
+        float fullScale = 1 << (format.getSampleSizeInBits() - 1);
+        float[] samples = new float[bytesRead / bytesPerSample];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = decodeSample(buffer, i * bytesPerSample, format) / fullScale;
+        }
+        return samples;
+    }
 
+    private static boolean isDecodable(AudioFormat format) {
+        return format.getSampleSizeInBits() == 16 || format.getSampleSizeInBits() == 8;
+    }
+
+    /**
+     * Decodes the first channel of the frame starting at {@code byteOffset} into a signed integer sample,
+     * shared by both precisions so they always agree on the format.
+     *
+     * @param buffer     The raw frame bytes.
+     * @param byteOffset The byte offset of the frame.
+     * @param format     The 8- or 16-bit capture format.
+     * @return The sample in [-32768, 32767] for 16-bit formats or [-128, 127] for 8-bit formats.
+     */
+    private static int decodeSample(byte[] buffer, int byteOffset, AudioFormat format) {
         if (format.getSampleSizeInBits() == 16) {
-            for (int i = 0; i < numSamples; i++) {
-                int byteOffset = i * bytesPerSample;
-                int sampleValue;
-                if (bigEndian) {
-                    sampleValue = ((buffer[byteOffset] << 8) | (buffer[byteOffset + 1] & 0xFF));
-                } else {
-                    sampleValue = ((buffer[byteOffset + 1] << 8) | (buffer[byteOffset] & 0xFF));
-                }
-                samples[i] = sampleValue / 32768.0;
-            }
-        } else if (format.getSampleSizeInBits() == 8) {
-            boolean isSigned = format.getEncoding() == AudioFormat.Encoding.PCM_SIGNED;
-            for (int i = 0; i < numSamples; i++) {
-                int sampleValue = buffer[i * bytesPerSample] & 0xFF;
-                if (isSigned) {
-                    if (sampleValue > 127) sampleValue -= 256;
-                    samples[i] = sampleValue / 128.0;
-                } else {
-                    samples[i] = (sampleValue - 128) / 128.0;
-                }
+            if (format.isBigEndian()) {
+                return (buffer[byteOffset] << 8) | (buffer[byteOffset + 1] & 0xFF);
             }
-        } else {
-            return new double[0];
+            return (buffer[byteOffset + 1] << 8) | (buffer[byteOffset] & 0xFF);
         }
-        return samples;
+        int sampleValue = buffer[byteOffset] & 0xFF;
+        if (format.getEncoding() == AudioFormat.Encoding.PCM_SIGNED) {
+            return sampleValue > 127 ? sampleValue - 256 : sampleValue;
+        }
+        return sampleValue - 128;
     }
-}
\ No newline at end of file
+}
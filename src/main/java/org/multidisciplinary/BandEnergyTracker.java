@@ -0,0 +1,251 @@
+package org.multidisciplinary;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Streaming tracker of the signal energy in a few frequency bands, using the Goertzel algorithm.
+ * Only the DFT bins inside the bands are evaluated, so the cost per sample is proportional to the
+ * number of monitored bins instead of a full FFT per buffer. This is meant for live monitoring of
+ * clinically relevant bands, such as S1/S2 energy and the murmur band.
+ * Important:
+ * - Samples are analyzed in consecutive Hann-windowed blocks of {@code hopSize} samples,
+ *   giving a frequency resolution of sampleRate / hopSize.
+ * - Energies are mean power (a sinusoid of amplitude A inside a band reports A^2 / 2).
+ * - Block state is kept between calls, so chunks of any size can be fed, e.g. from {@link AudioRecorder}.
+ */
+public final class BandEnergyTracker {
+
+    /**
+     * A named frequency band [lowHz, highHz).
+     */
+    public static final class Band {
+        private final String name;
+        private final double lowHz;
+        private final double highHz;
+
+        public Band(final String name, final double lowHz, final double highHz) {
+            this.name = name;
+            this.lowHz = lowHz;
+            this.highHz = highHz;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public double getLowHz() {
+            return lowHz;
+        }
+
+        public double getHighHz() {
+            return highHz;
+        }
+    }
+
+    /**
+     * Receives the band energies at the end of every block.
+     */
+    public interface Listener {
+        /**
+         * @param endSample The index one past the last sample of the block.
+         * @param energies  The mean power of each band, in the order the bands were given.
+         */
+        void onEnergies(long endSample, double[] energies);
+
+        /**
+         * Called when a band's energy crosses its threshold, see {@link BandEnergyTracker#setThreshold(int, double)}.
+         * Crossings of a block are reported before {@link #onEnergies} for the same block.
+         *
+         * @param band   The band that crossed.
+         * @param energy The energy that crossed the threshold.
+         * @param above  true when rising above the threshold, false when falling below it.
+         */
+        default void onThresholdCrossed(Band band, double energy, boolean above) {}
+    }
+
+    private final Band[] bands;
+    private final int hopSize;
+    private final Listener listener;
+
+    private final float[] window;
+    private final double energyScale;
+    private final double[] coefficients; // 2 cos(omega) per monitored bin
+    private final int[] binBands;        // band index per monitored bin
+    private final double[] state1;
+    private final double[] state2;
+
+    private final double[] thresholds;
+    private final boolean[] aboveThreshold;
+    private int position = 0;
+    private long processed = 0;
+
+    /**
+     * @param sampleRate The sampling rate of the signal in Hz.
+     * @param hopSize    The block length in samples; energies are reported once per block.
+     * @param bands      The bands to track.
+     * @param listener   The listener receiving the energies.
+     */
+    public BandEnergyTracker(final int sampleRate, final int hopSize, final Band[] bands, final Listener listener) {
+        if (hopSize < 2) {
+            throw new IllegalArgumentException("Hop size must be at least 2 samples.");
+        }
+        this.bands = bands.clone();
+        this.hopSize = hopSize;
+        this.listener = listener;
+
+        window = new float[hopSize];
+        double windowPower = 0;
+        for (int i = 0; i < hopSize; i++) {
+            window[i] = (float) (0.5 - 0.5 * Math.cos(2 * Math.PI * i / hopSize));
+            windowPower += window[i] * window[i];
+        }
+        // Parseval: the positive-frequency bins of a real signal hold half of its windowed power.
+        energyScale = 2.0 / (hopSize * windowPower);
+
+        final double binSize = (double) sampleRate / hopSize;
+        final int[] firstBins = new int[bands.length];
+        final int[] lastBins = new int[bands.length];
+        int binCount = 0;
+        for (int b = 0; b < bands.length; b++) {
+            firstBins[b] = Math.max(1, (int) Math.ceil(bands[b].getLowHz() / binSize));
+            lastBins[b] = Math.min(hopSize / 2, (int) Math.ceil(bands[b].getHighHz() / binSize) - 1);
+            if (firstBins[b] > lastBins[b]) {
+                // A band narrower than one bin is represented by its nearest bin.
+                firstBins[b] = Math.min(hopSize / 2, Math.max(1, (int) Math.round(bands[b].getLowHz() / binSize)));
+                lastBins[b] = firstBins[b];
+            }
+            binCount += lastBins[b] - firstBins[b] + 1;
+        }
+
+        coefficients = new double[binCount];
+        binBands = new int[binCount];
+        for (int b = 0, i = 0; b < bands.length; b++) {
+            for (int k = firstBins[b]; k <= lastBins[b]; k++, i++) {
+                coefficients[i] = 2 * Math.cos(2 * Math.PI * k / hopSize);
+                binBands[i] = b;
+            }
+        }
+        state1 = new double[coefficients.length];
+        state2 = new double[coefficients.length];
+
+        thresholds = new double[bands.length];
+        Arrays.fill(thresholds, Double.NaN);
+        aboveThreshold = new boolean[bands.length];
+    }
+
+    /**
+     * Returns the bands used for phonocardiogram monitoring: S1/S2 energy (25-150 Hz) and the murmur band (150-600 Hz).
+     *
+     * @return The bands.
+     */
+    public static Band[] pcgBands() {
+        return new Band[] {
+                new Band("S1/S2", 25, 150),
+                new Band("Murmur", 150, 600),
+        };
+    }
+
+    /**
+     * Sets the energy above which {@link Listener#onThresholdCrossed} fires for a band; NaN disables it.
+     *
+     * @param band   The index of the band.
+     * @param energy The threshold as mean power.
+     */
+    public void setThreshold(final int band, final double energy) {
+        thresholds[band] = energy;
+        aboveThreshold[band] = false;
+    }
+
+    /**
+     * Feeds samples into the tracker.
+     */
+    public void process(final float[] samples) {
+        for (final float sample : samples) {
+            update(sample);
+        }
+    }
+
+    /**
+     * Feeds double-precision samples into the tracker.
+     */
+    public void process(final double[] samples) {
+        for (final double sample : samples) {
+            update(sample);
+        }
+    }
+
+    /**
+     * Computes the band energies of a whole signal, block by block.
+     *
+     * @param samples    The time-domain signal.
+     * @param sampleRate The sampling rate of the signal in Hz.
+     * @param hopSize    The block length in samples.
+     * @param bands      The bands to track.
+     * @return The energies indexed by [band][block]; a trailing partial block is dropped.
+     */
+    public static double[][] scan(final float[] samples, final int sampleRate, final int hopSize, final Band[] bands) {
+        return scan(samples.length, sampleRate, hopSize, bands, tracker -> tracker.process(samples));
+    }
+
+    /**
+     * Double-precision variant of {@link #scan(float[], int, int, Band[])}.
+     */
+    public static double[][] scan(final double[] samples, final int sampleRate, final int hopSize, final Band[] bands) {
+        return scan(samples.length, sampleRate, hopSize, bands, tracker -> tracker.process(samples));
+    }
+
+    /**
+     * Collects the energies of every block while {@code feed} pushes a signal of the given length through a tracker.
+     */
+    private static double[][] scan(final int length, final int sampleRate, final int hopSize, final Band[] bands,
+                                   final Consumer<BandEnergyTracker> feed) {
+        final double[][] energies = new double[bands.length][length / hopSize];
+        final int[] block = { 0 };
+        feed.accept(new BandEnergyTracker(sampleRate, hopSize, bands, (end, values) -> {
+            for (int b = 0; b < values.length; b++) {
+                energies[b][block[0]] = values[b];
+            }
+            block[0]++;
+        }));
+        return energies;
+    }
+
+    /**
+     * Runs one Goertzel step for every monitored bin and reports the energies at the end of a block.
+     */
+    private void update(final double sample) {
+        final double x = sample * window[position];
+        for (int i = 0; i < coefficients.length; i++) {
+            final double s0 = x + coefficients[i] * state1[i] - state2[i];
+            state2[i] = state1[i];
+            state1[i] = s0;
+        }
+        processed++;
+        if (++position == hopSize) {
+            position = 0;
+            emit();
+        }
+    }
+
+    private void emit() {
+        final double[] energies = new double[bands.length];
+        for (int i = 0; i < coefficients.length; i++) {
+            final double power = state1[i] * state1[i] + state2[i] * state2[i] - coefficients[i] * state1[i] * state2[i];
+            energies[binBands[i]] += power * energyScale;
+            state1[i] = 0;
+            state2[i] = 0;
+        }
+
+        // Crossings go first, so onEnergies already sees the threshold state of this block.
+        for (int b = 0; b < bands.length; b++) {
+            if (Double.isNaN(thresholds[b])) continue;
+            final boolean above = energies[b] > thresholds[b];
+            if (above != aboveThreshold[b]) {
+                aboveThreshold[b] = above;
+                listener.onThresholdCrossed(bands[b], energies[b], above);
+            }
+        }
+        listener.onEnergies(processed, energies);
+    }
+}
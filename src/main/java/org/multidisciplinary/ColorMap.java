@@ -0,0 +1,66 @@
+package org.multidisciplinary;
+
+/**
+ * Precomputed heat colormap (black - purple - red - yellow - white) for intensity images.
+ * The colors are stored as a lookup table of packed RGB values,
+ * so mapping a value to a pixel is a single array access.
+ */
+final class ColorMap {
+
+    /** Number of entries in the lookup table. */
+    static final int SIZE = 256;
+
+    private static final float[][] ANCHORS = {
+            { 0.00f, 0.00f, 0.00f },
+            { 0.34f, 0.06f, 0.43f },
+            { 0.73f, 0.21f, 0.33f },
+            { 0.98f, 0.55f, 0.04f },
+            { 0.99f, 1.00f, 0.64f },
+    };
+
+    private static final int[] LUT = buildLut();
+
+    private ColorMap() {}
+
+    /**
+     * Returns the packed RGB color for a lookup table index.
+     *
+     * @param index The index in [0, {@link #SIZE}), values outside are clamped.
+     * @return The color as 0xRRGGBB.
+     */
+    static int rgbAt(final int index) {
+        return LUT[Math.max(0, Math.min(SIZE - 1, index))];
+    }
+
+    /**
+     * Returns the packed RGB color for a normalized intensity.
+     *
+     * @param value The intensity in [0, 1], values outside are clamped.
+     * @return The color as 0xRRGGBB.
+     */
+    static int rgb(final double value) {
+        return rgbAt((int) (value * (SIZE - 1)));
+    }
+
+    /**
+     * Linearly interpolates the anchor colors into the lookup table.
+     *
+     * @return The lookup table.
+     */
+    private static int[] buildLut() {
+        final int[] lut = new int[SIZE];
+        final int segments = ANCHORS.length - 1;
+        for (int i = 0; i < SIZE; i++) {
+            final float position = (float) i / (SIZE - 1) * segments;
+            final int segment = Math.min((int) position, segments - 1);
+            final float t = position - segment;
+            final float[] from = ANCHORS[segment];
+            final float[] to = ANCHORS[segment + 1];
+            final int r = Math.round((from[0] + (to[0] - from[0]) * t) * 255);
+            final int g = Math.round((from[1] + (to[1] - from[1]) * t) * 255);
+            final int b = Math.round((from[2] + (to[2] - from[2]) * t) * 255);
+            lut[i] = (r << 16) | (g << 8) | b;
+        }
+        return lut;
+    }
+}
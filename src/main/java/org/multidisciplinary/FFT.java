@@ -1,5 +1,8 @@
 package org.multidisciplinary;
 
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.IntStream;
 
 /**
@@ -13,6 +16,16 @@ import java.util.stream.IntStream;
  */
 public final class FFT {
 
+    /**
+     * Largest FFT length whose twiddle table is cached. This covers the block transforms that repeat
+     * many times (e.g. scalogram chunks); the tables of longer one-off transforms, such as a whole file,
+     * are computed per call so they do not stay in memory. All cached tables together take about 2 MB.
+     */
+    private static final int MAX_CACHED_TWIDDLE_LENGTH = 1 << 18;
+
+    /** Twiddle tables of the single-precision FFT, keyed by length; shared across threads. */
+    private static final Map<Integer, float[][]> TWIDDLES = new ConcurrentHashMap<>();
+
     private FFT() {}
 
     /**
@@ -32,6 +45,34 @@ public final class FFT {
                 .toArray();
     }
 
+    /**
+     * Single-precision variant of {@link #computeMagnitude(double[])}.
+     * Runs an in-place iterative radix-2 FFT over primitive {@code float} arrays,
+     * so no {@link Complex} objects are allocated. Note that this differs from the double
+     * path in algorithm as well as precision, so the two should not be compared on speed
+     * as a measure of float versus double arithmetic.
+     * Precision: 16-bit PCM samples are represented exactly by a float, and the
+     * rounding error of the transform grows roughly with log2(N) * 6e-8, so for
+     * signals up to a few million samples the magnitudes agree with the double
+     * path to within about 1e-5 relative to the largest bin (well below the
+     * 96 dB dynamic range of the source data).
+     *
+     * @param samples the input time-domain signal (an array of real values)
+     * @return an array representing the magnitude of each frequency bin in the signal
+     */
+    public static float[] computeMagnitude(final float[] samples) {
+        final int paddedLength = nextPowerOfTwo(samples.length);
+        final float[] re = Arrays.copyOf(samples, paddedLength);
+        final float[] im = new float[paddedLength];
+        fft(re, im);
+
+        final float[] magnitudes = new float[paddedLength / 2];
+        for (int i = 0; i < magnitudes.length; i++) {
+            magnitudes[i] = (float) Math.sqrt(re[i] * re[i] + im[i] * im[i]);
+        }
+        return magnitudes;
+    }
+
     /**
      * Computes the actual frequency values corresponding to each FFT bin.
      *
@@ -66,7 +107,7 @@ public final class FFT {
      * @param n the input number
      * @return the next power of two greater than or equal to {@code n}
      */
-    private static int nextPowerOfTwo(final int n) {
+    static int nextPowerOfTwo(final int n) {
         int power = 1;
         while (power < n) {
             power *= 2;
@@ -104,4 +145,87 @@ public final class FFT {
         }
         return y;
     }
+
+    /**
+     * Performs an in-place inverse FFT on separate real and imaginary arrays, including the 1/N scaling.
+     * Uses the identity ifft(x) = swap(fft(swap(x))) / N, where swap exchanges real and imaginary parts,
+     * so it shares the forward butterfly code.
+     *
+     * @param re the real parts (length must be a power of two), overwritten with the result
+     * @param im the imaginary parts (same length as {@code re}), overwritten with the result
+     */
+    static void ifft(final float[] re, final float[] im) {
+        fft(im, re);
+        final float scale = 1.0f / re.length;
+        for (int i = 0; i < re.length; i++) {
+            re[i] *= scale;
+            im[i] *= scale;
+        }
+    }
+
+    /**
+     * Performs an in-place iterative Cooley-Tukey FFT on separate real and imaginary arrays.
+     * The twiddle factors are shared by all butterfly stages, and cached across calls for block-sized lengths.
+     *
+     * @param re the real parts (length must be a power of two), overwritten with the result
+     * @param im the imaginary parts (same length as {@code re}), overwritten with the result
+     */
+    static void fft(final float[] re, final float[] im) {
+        final int n = re.length;
+        if (n < 2) return;
+
+        for (int i = 1, j = 0; i < n; i++) {
+            int bit = n >> 1;
+            for (; (j & bit) != 0; bit >>= 1) {
+                j ^= bit;
+            }
+            j ^= bit;
+            if (i < j) {
+                float t = re[i]; re[i] = re[j]; re[j] = t;
+                t = im[i]; im[i] = im[j]; im[j] = t;
+            }
+        }
+
+        final float[][] twiddles = n <= MAX_CACHED_TWIDDLE_LENGTH
+                ? TWIDDLES.computeIfAbsent(n, FFT::computeTwiddles)
+                : computeTwiddles(n);
+        final float[] cos = twiddles[0];
+        final float[] sin = twiddles[1];
+
+        for (int len = 2; len <= n; len <<= 1) {
+            final int half = len / 2;
+            final int step = n / len;
+            for (int start = 0; start < n; start += len) {
+                for (int k = 0; k < half; k++) {
+                    final int a = start + k;
+                    final int b = a + half;
+                    final float wr = cos[k * step];
+                    final float wi = sin[k * step];
+                    final float tr = wr * re[b] - wi * im[b];
+                    final float ti = wr * im[b] + wi * re[b];
+                    re[b] = re[a] - tr;
+                    im[b] = im[a] - ti;
+                    re[a] += tr;
+                    im[a] += ti;
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes the cosine and sine tables of the twiddle factors e^(-2 pi i k / n) for k < n / 2.
+     *
+     * @param n the FFT length
+     * @return {cos, sin} tables
+     */
+    private static float[][] computeTwiddles(final int n) {
+        final float[] cos = new float[n / 2];
+        final float[] sin = new float[n / 2];
+        for (int k = 0; k < n / 2; k++) {
+            final double kth = -2 * Math.PI * k / n;
+            cos[k] = (float) Math.cos(kth);
+            sin[k] = (float) Math.sin(kth);
+        }
+        return new float[][] { cos, sin };
+    }
 }
\ No newline at end of file
@@ -0,0 +1,105 @@
+package org.multidisciplinary;
+
+import javax.sound.sampled.*;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Sample source that replays a WAV file as if it were being captured,
+ * at real-time or accelerated speed and optionally in a loop.
+ * Replaying the same file gives the same chunks every run, which makes load tests reproducible.
+ */
+public class FileReplaySource implements SampleSource {
+
+    private final File file;
+    private final double speed;
+    private final boolean loop;
+    private final AudioFormat audioFormat;
+
+    private AudioInputStream audioStream;
+    private Pacer pacer;
+    private volatile boolean open = false;
+
+    /**
+     * @param file  The PCM WAV file to replay.
+     * @param speed The speed factor, e.g. {@link #REAL_TIME} or {@link #UNTHROTTLED}.
+     * @param loop  Whether to restart from the beginning at the end of the file.
+     * @throws IOException If an I/O error occurs.
+     * @throws UnsupportedAudioFileException If the file is not 8-bit PCM or 16-bit signed PCM,
+     *                                       the formats {@link AudioRecorder} can decode.
+     * @throws IllegalArgumentException If the speed is not positive.
+     */
+    public FileReplaySource(File file, double speed, boolean loop) throws IOException, UnsupportedAudioFileException {
+        this.file = file;
+        this.speed = Pacer.checkSpeed(speed);
+        this.loop = loop;
+        try (AudioInputStream probe = AudioSystem.getAudioInputStream(file)) {
+            this.audioFormat = probe.getFormat();
+        }
+
+        final AudioFormat.Encoding encoding = audioFormat.getEncoding();
+        final int sampleSize = audioFormat.getSampleSizeInBits();
+        final boolean supported = (sampleSize == 16 && encoding == AudioFormat.Encoding.PCM_SIGNED)
+                || (sampleSize == 8 && (encoding == AudioFormat.Encoding.PCM_SIGNED
+                        || encoding == AudioFormat.Encoding.PCM_UNSIGNED));
+        if (!supported) {
+            throw new UnsupportedAudioFileException("Only 8-bit PCM or 16-bit signed PCM WAV files can be replayed.");
+        }
+    }
+
+    @Override
+    public AudioFormat getFormat() {
+        return audioFormat;
+    }
+
+    @Override
+    public int getBufferSize() {
+        return (int) (audioFormat.getFrameRate() / 2) * audioFormat.getFrameSize();
+    }
+
+    @Override
+    public void open() throws IOException {
+        audioStream = openStream();
+        pacer = new Pacer(audioFormat.getFrameRate(), speed);
+        open = true;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (!open) {
+            return -1;
+        }
+        final int frameSize = audioFormat.getFrameSize();
+        final int aligned = length / frameSize * frameSize;
+        int bytesRead = audioStream.read(buffer, offset, aligned);
+        if (bytesRead < 0 && loop) {
+            audioStream.close();
+            audioStream = openStream();
+            bytesRead = audioStream.read(buffer, offset, aligned);
+        }
+        if (bytesRead > 0) {
+            pacer.await(bytesRead / frameSize);
+        }
+        return bytesRead;
+    }
+
+    @Override
+    public void close() {
+        open = false;
+        if (audioStream != null) {
+            try {
+                audioStream.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private AudioInputStream openStream() throws IOException {
+        try {
+            return AudioSystem.getAudioInputStream(file);
+        } catch (UnsupportedAudioFileException e) {
+            throw new IOException("Cannot reopen " + file.getName(), e);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package org.multidisciplinary;
+
+import javax.sound.sampled.*;
+
+/**
+ * Sample source backed by a capture line of an audio input device (microphone, stethoscope).
+ */
+public class LineSampleSource implements SampleSource {
+
+    private final Mixer.Info mixerInfo;
+    private final AudioFormat audioFormat;
+    private TargetDataLine targetDataLine;
+
+    /**
+     * @param mixerInfo The input device to capture from.
+     * @param format    The capture format.
+     */
+    public LineSampleSource(Mixer.Info mixerInfo, AudioFormat format) {
+        this.mixerInfo = mixerInfo;
+        this.audioFormat = format;
+    }
+
+    @Override
+    public AudioFormat getFormat() {
+        return audioFormat;
+    }
+
+    @Override
+    public int getBufferSize() {
+        return targetDataLine.getBufferSize();
+    }
+
+    @Override
+    public void open() throws LineUnavailableException {
+        DataLine.Info dataLineInfo = new DataLine.Info(TargetDataLine.class, audioFormat);
+        Mixer mixer = AudioSystem.getMixer(mixerInfo);
+        targetDataLine = (TargetDataLine) mixer.getLine(dataLineInfo);
+        targetDataLine.open(audioFormat);
+        targetDataLine.start();
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) {
+        if (!targetDataLine.isOpen()) {
+            return -1;
+        }
+        return targetDataLine.read(buffer, offset, length);
+    }
+
+    @Override
+    public void close() {
+        if (targetDataLine != null) {
+            targetDataLine.stop();
+            targetDataLine.close();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package org.multidisciplinary;
+
+/**
+ * Throttles a generated or replayed stream so frames become available at a given multiple
+ * of their real-time rate, the way a capture line delivers them.
+ */
+final class Pacer {
+
+    private final double framesPerNano;
+    private long startNanos = -1;
+    private long framesDelivered = 0;
+
+    /**
+     * @param sampleRate The frame rate of the stream in Hz.
+     * @param speed      The speed factor, {@link SampleSource#REAL_TIME} or faster;
+     *                   {@link SampleSource#UNTHROTTLED} never waits.
+     * @throws IllegalArgumentException If the speed is not positive.
+     */
+    Pacer(final float sampleRate, final double speed) {
+        this.framesPerNano = sampleRate * checkSpeed(speed) / 1e9;
+    }
+
+    /**
+     * Validates a speed factor; zero, negative or NaN speeds would make the wait time meaningless.
+     *
+     * @param speed The speed factor to check.
+     * @return The speed factor.
+     * @throws IllegalArgumentException If the speed is not positive.
+     */
+    static double checkSpeed(final double speed) {
+        if (!(speed > 0)) {
+            throw new IllegalArgumentException("Speed must be positive, was " + speed);
+        }
+        return speed;
+    }
+
+    /**
+     * Blocks until the next {@code frames} frames are due, then counts them as delivered.
+     *
+     * @param frames The number of frames about to be delivered.
+     */
+    void await(final int frames) {
+        if (startNanos < 0) {
+            startNanos = System.nanoTime();
+        }
+        framesDelivered += frames;
+        final long dueNanos = startNanos + (long) (framesDelivered / framesPerNano);
+        final long waitNanos = dueNanos - System.nanoTime();
+        if (waitNanos > 0) {
+            try {
+                Thread.sleep(waitNanos / 1_000_000, (int) (waitNanos % 1_000_000));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -2,16 +2,20 @@ package org.multidisciplinary;
 
 import org.math.plot.Plot2DPanel;
 import javax.swing.*;
+import java.util.Arrays;
+import java.util.function.IntToDoubleFunction;
 
 public class PlotManager {
 
+    private static final int MAX_PLOT_POINTS = 4096;
+    private static final double MAX_PLOT_FREQUENCY = 3000;
+
     public static void updateWaveformPlot(Plot2DPanel plot, double[] data, int windowSize) {
+        final double[][] envelope = reduceEnvelope(data.length, i -> data[i], MAX_PLOT_POINTS);
         SwingUtilities.invokeLater(() -> {
             plot.removeAllPlots();
             if (data.length > 0) {
-                double[] timeIndices = new double[data.length];
-                for (int i = 0; i < data.length; i++) timeIndices[i] = i;
-                plot.addLinePlot("Live Waveform", timeIndices, data);
+                plot.addLinePlot("Live Waveform", envelope[0], envelope[1]);
                 plot.setFixedBounds(0, 0, windowSize);
                 plot.setFixedBounds(1, -1.0, 1.0);
             }
@@ -19,23 +23,142 @@ public class PlotManager {
     }
 
     public static void updateSpectrumPlot(Plot2DPanel plot, double[] frequencies, double[] magnitudes) {
+        final double[][] spectrum = visibleSpectrum(frequencies, magnitudes);
+        SwingUtilities.invokeLater(() -> {
+            plot.removeAllPlots();
+            if (frequencies.length == magnitudes.length && spectrum[0].length > 0) {
+                plot.addLinePlot("Live Spectrum", spectrum[0], spectrum[1]);
+            }
+            plot.setFixedBounds(0, 0, MAX_PLOT_FREQUENCY);
+        });
+    }
+
+    public static void updateWaveformPlot(Plot2DPanel plot, float[] data, int windowSize) {
+        final double[][] envelope = reduceEnvelope(data.length, i -> data[i], MAX_PLOT_POINTS);
+        SwingUtilities.invokeLater(() -> {
+            plot.removeAllPlots();
+            if (data.length > 0) {
+                plot.addLinePlot("Live Waveform", envelope[0], envelope[1]);
+                plot.setFixedBounds(0, 0, windowSize);
+                plot.setFixedBounds(1, -1.0, 1.0);
+            }
+        });
+    }
+
+    public static void updateSpectrumPlot(Plot2DPanel plot, float[] magnitudes, int sampleRate) {
+        final double[][] spectrum = visibleSpectrum(magnitudes, sampleRate);
         SwingUtilities.invokeLater(() -> {
             plot.removeAllPlots();
-            if (frequencies.length == magnitudes.length && frequencies.length > 0) {
-                plot.addLinePlot("Live Spectrum", frequencies, magnitudes);
+            if (spectrum[0].length > 0) {
+                plot.addLinePlot("Live Spectrum", spectrum[0], spectrum[1]);
             }
-            plot.setFixedBounds(0, 0, 3000);
+            plot.setFixedBounds(0, 0, MAX_PLOT_FREQUENCY);
         });
     }
 
     public static void updateStaticWaveformPlot(Plot2DPanel plot, double[] samples) {
+        final double[][] envelope = reduceEnvelope(samples.length, i -> samples[i], MAX_PLOT_POINTS);
         plot.removeAllPlots();
-        plot.addLinePlot("Waveform", samples);
+        plot.addLinePlot("Waveform", envelope[0], envelope[1]);
     }
 
     public static void updateStaticSpectrumPlot(Plot2DPanel plot, double[] frequencies, double[] magnitudes) {
+        final double[][] spectrum = visibleSpectrum(frequencies, magnitudes);
         plot.removeAllPlots();
-        plot.addLinePlot("Frequency Spectrum", frequencies, magnitudes);
-        plot.setFixedBounds(0, 0, 3000);
+        plot.addLinePlot("Frequency Spectrum", spectrum[0], spectrum[1]);
+        plot.setFixedBounds(0, 0, MAX_PLOT_FREQUENCY);
+    }
+
+    public static void updateStaticWaveformPlot(Plot2DPanel plot, float[] samples) {
+        final double[][] envelope = reduceEnvelope(samples.length, i -> samples[i], MAX_PLOT_POINTS);
+        plot.removeAllPlots();
+        plot.addLinePlot("Waveform", envelope[0], envelope[1]);
+    }
+
+    public static void updateStaticSpectrumPlot(Plot2DPanel plot, float[] magnitudes, int sampleRate) {
+        final double[][] spectrum = visibleSpectrum(magnitudes, sampleRate);
+        plot.removeAllPlots();
+        plot.addLinePlot("Frequency Spectrum", spectrum[0], spectrum[1]);
+        plot.setFixedBounds(0, 0, MAX_PLOT_FREQUENCY);
+    }
+
+    /**
+     * Reduces a signal to at most {@code maxPoints} points by keeping the minimum and maximum
+     * of each bucket in their original order, so peaks stay visible after decimation.
+     * Both precisions go through here, so the Float32 setting does not change what is plotted.
+     *
+     * @param length    The number of samples.
+     * @param data      Returns the sample at an index.
+     * @param maxPoints The maximum number of points to keep.
+     * @return {x, y} arrays where x is the original sample index of each kept point.
+     */
+    private static double[][] reduceEnvelope(int length, IntToDoubleFunction data, int maxPoints) {
+        if (length <= maxPoints) {
+            final double[] x = new double[length];
+            final double[] y = new double[length];
+            for (int i = 0; i < length; i++) {
+                x[i] = i;
+                y[i] = data.applyAsDouble(i);
+            }
+            return new double[][] { x, y };
+        }
+
+        final int buckets = maxPoints / 2;
+        final double[] x = new double[buckets * 2];
+        final double[] y = new double[buckets * 2];
+        for (int b = 0; b < buckets; b++) {
+            final int from = (int) ((long) b * length / buckets);
+            final int to = (int) ((long) (b + 1) * length / buckets);
+            int minIndex = from;
+            int maxIndex = from;
+            double min = data.applyAsDouble(from);
+            double max = min;
+            for (int i = from + 1; i < to; i++) {
+                final double value = data.applyAsDouble(i);
+                if (value < min) {
+                    min = value;
+                    minIndex = i;
+                }
+                if (value > max) {
+                    max = value;
+                    maxIndex = i;
+                }
+            }
+            x[2 * b] = Math.min(minIndex, maxIndex);
+            y[2 * b] = minIndex < maxIndex ? min : max;
+            x[2 * b + 1] = Math.max(minIndex, maxIndex);
+            y[2 * b + 1] = minIndex < maxIndex ? max : min;
+        }
+        return new double[][] { x, y };
+    }
+
+    /**
+     * Keeps only the bins up to {@link #MAX_PLOT_FREQUENCY}, the range the spectrum plots display.
+     *
+     * @return {frequencies, magnitudes} arrays ready for plotting.
+     */
+    private static double[][] visibleSpectrum(float[] magnitudes, int sampleRate) {
+        final double binSize = (double) sampleRate / (magnitudes.length * 2);
+        final int bins = (int) Math.min(magnitudes.length, Math.floor(MAX_PLOT_FREQUENCY / binSize) + 1);
+        final double[] frequencies = new double[bins];
+        final double[] values = new double[bins];
+        for (int i = 0; i < bins; i++) {
+            frequencies[i] = i * binSize;
+            values[i] = magnitudes[i];
+        }
+        return new double[][] { frequencies, values };
+    }
+
+    /**
+     * Keeps only the bins up to {@link #MAX_PLOT_FREQUENCY}, the range the spectrum plots display.
+     *
+     * @return {frequencies, magnitudes} arrays ready for plotting.
+     */
+    private static double[][] visibleSpectrum(double[] frequencies, double[] magnitudes) {
+        int bins = 0;
+        while (bins < Math.min(frequencies.length, magnitudes.length) && frequencies[bins] <= MAX_PLOT_FREQUENCY) {
+            bins++;
+        }
+        return new double[][] { Arrays.copyOf(frequencies, bins), Arrays.copyOf(magnitudes, bins) };
     }
 }
\ No newline at end of file
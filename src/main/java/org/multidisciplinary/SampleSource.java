@@ -0,0 +1,58 @@
+package org.multidisciplinary;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.LineUnavailableException;
+import java.io.IOException;
+
+/**
+ * A source of raw PCM audio bytes for {@link AudioRecorder}.
+ * It mirrors the parts of {@link javax.sound.sampled.TargetDataLine} the recorder uses,
+ * so a microphone, a synthetic signal or a replayed file can drive the live path interchangeably.
+ */
+public interface SampleSource {
+
+    /** Speed factor that delivers samples at the pace they would be captured. */
+    double REAL_TIME = 1.0;
+
+    /** Speed factor that delivers samples as fast as the consumer reads them. */
+    double UNTHROTTLED = Double.POSITIVE_INFINITY;
+
+    /**
+     * Returns the format of the bytes returned by {@link #read(byte[], int, int)}.
+     *
+     * @return The audio format.
+     */
+    AudioFormat getFormat();
+
+    /**
+     * Returns the size of the source's internal buffer in bytes.
+     * The recorder reads a fifth of it at a time.
+     *
+     * @return The buffer size in bytes.
+     */
+    int getBufferSize();
+
+    /**
+     * Acquires the underlying resources and starts producing samples.
+     *
+     * @throws IOException If the source cannot be read.
+     * @throws LineUnavailableException If the audio line cannot be opened.
+     */
+    void open() throws IOException, LineUnavailableException;
+
+    /**
+     * Reads whole frames into the buffer, blocking until they are available.
+     *
+     * @param buffer The buffer to fill.
+     * @param offset The first byte to write.
+     * @param length The maximum number of bytes to read.
+     * @return The number of bytes read, or -1 once the source is exhausted or closed.
+     * @throws IOException If an I/O error occurs.
+     */
+    int read(byte[] buffer, int offset, int length) throws IOException;
+
+    /**
+     * Stops producing samples and releases the underlying resources.
+     */
+    void close();
+}
@@ -0,0 +1,250 @@
+package org.multidisciplinary;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Continuous wavelet transform (scalogram) using the analytic Morlet wavelet.
+ * Unlike the FFT magnitude spectrum, a scalogram keeps time information, which makes
+ * short transients such as clicks, splits and murmurs visible.
+ * Important:
+ * - Each scale is computed in the frequency domain: the signal spectrum is multiplied by the
+ *   wavelet spectrum and transformed back with {@link FFT}, instead of convolving directly.
+ * - The signal is transformed once per segment and the scales are processed in parallel.
+ * - Long signals can be processed in chunks with {@link Streaming}, which keeps memory bounded.
+ */
+public final class Scalogram {
+
+    /** Centre angular frequency of the Morlet wavelet; 6 is the usual choice. */
+    private static final double OMEGA0 = 6.0;
+
+    /** Wavelet half-width, in standard deviations of its Gaussian envelope, kept as chunk overlap. */
+    private static final double SUPPORT = 4.0;
+
+    /**
+     * Receives scalogram columns as they are computed.
+     */
+    public interface Listener {
+        /**
+         * @param startSample The index of the first sample covered by these columns.
+         * @param magnitudes  The magnitudes indexed by [frequency][column].
+         */
+        void onColumns(int startSample, float[][] magnitudes);
+    }
+
+    private Scalogram() {}
+
+    /**
+     * Returns logarithmically spaced analysis frequencies, which give every octave the same number of rows.
+     *
+     * @param minHz The lowest frequency in Hz.
+     * @param maxHz The highest frequency in Hz.
+     * @param count The number of frequencies.
+     * @return Ascending frequencies in Hz.
+     */
+    public static double[] logFrequencies(final double minHz, final double maxHz, final int count) {
+        if (count == 1) return new double[] { minHz };
+        final double ratio = Math.log(maxHz / minHz) / (count - 1);
+        return IntStream.range(0, count)
+                .mapToDouble(i -> minHz * Math.exp(i * ratio))
+                .toArray();
+    }
+
+    /**
+     * Computes the scalogram of a whole signal in one pass.
+     * The magnitudes are normalized so that a sinusoid of amplitude A at one of the
+     * analysis frequencies produces a magnitude of about A in that row.
+     *
+     * @param samples     The time-domain signal.
+     * @param sampleRate  The sampling rate of the signal in Hz.
+     * @param frequencies The analysis frequencies in Hz.
+     * @return The magnitudes indexed by [frequency][sample].
+     */
+    public static float[][] compute(final float[] samples, final int sampleRate, final double[] frequencies) {
+        return transform(samples, samples.length, 0, samples.length,
+                sampleRate, frequencies, margin(frequencies, sampleRate));
+    }
+
+    /**
+     * Computes the scalogram of a signal chunk by chunk and hands each chunk to the listener.
+     * Peak memory depends on the chunk size rather than on the signal length.
+     *
+     * @param samples     The time-domain signal.
+     * @param sampleRate  The sampling rate of the signal in Hz.
+     * @param frequencies The analysis frequencies in Hz.
+     * @param chunkSize   The number of columns delivered per callback.
+     * @param listener    The listener receiving the columns in order.
+     */
+    public static void computeChunked(final float[] samples, final int sampleRate, final double[] frequencies,
+                                      final int chunkSize, final Listener listener) {
+        final Streaming streaming = new Streaming(sampleRate, frequencies, chunkSize, listener);
+        for (int offset = 0; offset < samples.length; offset += chunkSize) {
+            streaming.push(samples, offset, Math.min(chunkSize, samples.length - offset));
+        }
+        streaming.flush();
+    }
+
+    /**
+     * Double-precision input variant of {@link #computeChunked(float[], int, double[], int, Listener)}.
+     */
+    public static void computeChunked(final double[] samples, final int sampleRate, final double[] frequencies,
+                                      final int chunkSize, final Listener listener) {
+        final Streaming streaming = new Streaming(sampleRate, frequencies, chunkSize, listener);
+        for (int offset = 0; offset < samples.length; offset += chunkSize) {
+            streaming.push(samples, offset, Math.min(chunkSize, samples.length - offset));
+        }
+        streaming.flush();
+    }
+
+    /**
+     * Incremental scalogram for signals that arrive in pieces, such as live recordings or long files.
+     * Each chunk is transformed together with {@code margin} samples of context on both sides,
+     * so the chunk boundaries do not show up in the output.
+     * Columns are therefore delivered with a delay of one margin.
+     */
+    public static final class Streaming {
+
+        private final int sampleRate;
+        private final double[] frequencies;
+        private final int chunkSize;
+        private final int margin;
+        private final Listener listener;
+
+        private float[] pending;
+        private int pendingLength = 0;
+        private int lookback = 0; // already emitted samples kept at the front of pending as left context
+        private int emitted = 0;
+
+        /**
+         * @param sampleRate  The sampling rate of the signal in Hz.
+         * @param frequencies The analysis frequencies in Hz.
+         * @param chunkSize   The number of columns delivered per callback.
+         * @param listener    The listener receiving the columns in order.
+         */
+        public Streaming(final int sampleRate, final double[] frequencies, final int chunkSize, final Listener listener) {
+            if (chunkSize <= 0) {
+                throw new IllegalArgumentException("Chunk size must be positive.");
+            }
+            this.sampleRate = sampleRate;
+            this.frequencies = frequencies.clone();
+            this.chunkSize = chunkSize;
+            this.margin = margin(frequencies, sampleRate);
+            this.listener = listener;
+            this.pending = new float[chunkSize + 2 * margin];
+        }
+
+        /**
+         * Appends samples and emits every chunk that now has enough right-hand context.
+         */
+        public void push(final float[] samples, final int offset, final int length) {
+            ensureCapacity(length);
+            System.arraycopy(samples, offset, pending, pendingLength, length);
+            pendingLength += length;
+            drain();
+        }
+
+        /**
+         * Appends double-precision samples, see {@link #push(float[], int, int)}.
+         */
+        public void push(final double[] samples, final int offset, final int length) {
+            ensureCapacity(length);
+            for (int i = 0; i < length; i++) {
+                pending[pendingLength + i] = (float) samples[offset + i];
+            }
+            pendingLength += length;
+            drain();
+        }
+
+        /**
+         * Appends samples, see {@link #push(float[], int, int)}.
+         */
+        public void push(final float[] samples) {
+            push(samples, 0, samples.length);
+        }
+
+        /**
+         * Emits the remaining samples, treating the signal as ending here.
+         */
+        public void flush() {
+            while (pendingLength > lookback) {
+                emit(Math.min(chunkSize, pendingLength - lookback));
+            }
+        }
+
+        private void drain() {
+            while (pendingLength - lookback >= chunkSize + margin) {
+                emit(chunkSize);
+            }
+        }
+
+        private void emit(final int count) {
+            final int length = Math.min(pendingLength, lookback + count + margin);
+            final float[][] columns = transform(pending, length, lookback, lookback + count,
+                    sampleRate, frequencies, margin);
+            listener.onColumns(emitted, columns);
+            emitted += count;
+
+            final int drop = Math.max(0, lookback + count - margin);
+            System.arraycopy(pending, drop, pending, 0, pendingLength - drop);
+            pendingLength -= drop;
+            lookback = lookback + count - drop;
+        }
+
+        private void ensureCapacity(final int extra) {
+            if (pendingLength + extra > pending.length) {
+                pending = Arrays.copyOf(pending, Math.max(pending.length * 2, pendingLength + extra));
+            }
+        }
+    }
+
+    /**
+     * Returns the number of context samples needed on each side so that the widest wavelet fits.
+     */
+    private static int margin(final double[] frequencies, final int sampleRate) {
+        final double minFrequency = Arrays.stream(frequencies).min().orElse(sampleRate / 2.0);
+        return (int) Math.ceil(SUPPORT * scale(minFrequency) * sampleRate);
+    }
+
+    /**
+     * Converts a frequency to the Morlet scale (in seconds) whose spectrum peaks at that frequency.
+     */
+    private static double scale(final double frequency) {
+        return OMEGA0 / (2 * Math.PI * frequency);
+    }
+
+    /**
+     * Transforms {@code signal[0, length)} and returns the magnitudes of columns {@code [from, to)}.
+     * The FFT is zero-padded by at least {@code margin} so the circular convolution does not wrap around.
+     */
+    private static float[][] transform(final float[] signal, final int length, final int from, final int to,
+                                       final int sampleRate, final double[] frequencies, final int margin) {
+        final int n = FFT.nextPowerOfTwo(length + margin);
+        final float[] spectrumRe = Arrays.copyOf(signal, n);
+        Arrays.fill(spectrumRe, length, n, 0f);
+        final float[] spectrumIm = new float[n];
+        FFT.fft(spectrumRe, spectrumIm);
+
+        final float[][] magnitudes = new float[frequencies.length][];
+        IntStream.range(0, frequencies.length).parallel().forEach(row -> {
+            final double s = scale(frequencies[row]);
+            final float[] re = new float[n];
+            final float[] im = new float[n];
+            // The analytic wavelet is zero for negative frequencies, so only bins 1..n/2 contribute.
+            for (int k = 1; k <= n / 2; k++) {
+                final double omega = 2 * Math.PI * k * sampleRate / n;
+                final double arg = s * omega - OMEGA0;
+                final float wavelet = (float) (2 * Math.exp(-0.5 * arg * arg));
+                re[k] = spectrumRe[k] * wavelet;
+                im[k] = spectrumIm[k] * wavelet;
+            }
+            FFT.ifft(re, im);
+
+            final float[] values = new float[to - from];
+            for (int i = from; i < to; i++) {
+                values[i - from] = (float) Math.sqrt(re[i] * re[i] + im[i] * im[i]);
+            }
+            magnitudes[row] = values;
+        });
+        return magnitudes;
+    }
+}
@@ -0,0 +1,117 @@
+package org.multidisciplinary;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * Panel that renders a scalogram as a time-frequency heat map.
+ * Columns arriving from {@link Scalogram} are max-pooled into a fixed number of image columns,
+ * so memory and drawing cost do not depend on the length of the signal.
+ * Magnitudes are shown in decibels relative to the loudest point.
+ * All methods must be called on the Event Dispatch Thread.
+ */
+public class ScalogramPanel extends JPanel implements Scalogram.Listener {
+
+    private static final int IMAGE_WIDTH = 1024;
+    private static final double DYNAMIC_RANGE_DB = 60.0;
+    private static final int AXIS_MARGIN = 50;
+
+    private double[] frequencies = new double[0];
+    private float[][] pooled = new float[0][0];
+    private long totalSamples = 1;
+    private int sampleRate = 1;
+    private BufferedImage image;
+    private boolean computing = false;
+
+    public ScalogramPanel() {
+        setBackground(Color.WHITE);
+    }
+
+    /**
+     * Clears the panel and prepares it for a new signal.
+     *
+     * @param frequencies  The analysis frequencies of the rows, ascending.
+     * @param totalSamples The length of the signal in samples.
+     * @param sampleRate   The sampling rate of the signal in Hz.
+     */
+    public void begin(final double[] frequencies, final long totalSamples, final int sampleRate) {
+        this.frequencies = frequencies.clone();
+        this.pooled = new float[frequencies.length][IMAGE_WIDTH];
+        this.totalSamples = Math.max(1, totalSamples);
+        this.sampleRate = sampleRate;
+        this.image = null;
+        this.computing = true;
+        repaint();
+    }
+
+    /**
+     * Max-pools the given columns into the image columns they fall into.
+     */
+    @Override
+    public void onColumns(final int startSample, final float[][] magnitudes) {
+        for (int row = 0; row < magnitudes.length; row++) {
+            final float[] values = magnitudes[row];
+            final float[] target = pooled[row];
+            for (int i = 0; i < values.length; i++) {
+                final int column = (int) ((long) (startSample + i) * IMAGE_WIDTH / totalSamples);
+                if (values[i] > target[column]) {
+                    target[column] = values[i];
+                }
+            }
+        }
+    }
+
+    /**
+     * Converts the pooled magnitudes into the displayed image.
+     */
+    public void finish() {
+        float max = 0;
+        for (final float[] row : pooled) {
+            for (final float value : row) {
+                max = Math.max(max, value);
+            }
+        }
+
+        final BufferedImage result = new BufferedImage(IMAGE_WIDTH, Math.max(1, pooled.length), BufferedImage.TYPE_INT_RGB);
+        final double floor = max > 0 ? max * Math.pow(10, -DYNAMIC_RANGE_DB / 20) : 1;
+        for (int row = 0; row < pooled.length; row++) {
+            final int y = pooled.length - 1 - row; // highest frequency at the top
+            for (int x = 0; x < IMAGE_WIDTH; x++) {
+                final double db = 20 * Math.log10(Math.max(pooled[row][x], floor) / floor);
+                result.setRGB(x, y, ColorMap.rgb(db / DYNAMIC_RANGE_DB));
+            }
+        }
+        image = result;
+        computing = false;
+        repaint();
+    }
+
+    @Override
+    protected void paintComponent(final Graphics g) {
+        super.paintComponent(g);
+        final int width = getWidth() - AXIS_MARGIN - 30;
+        final int height = getHeight() - AXIS_MARGIN;
+        if (image == null || width <= 0 || height <= 0) {
+            g.drawString(computing ? "Computing scalogram..." : "Load a WAV file to compute the scalogram.",
+                    AXIS_MARGIN, getHeight() / 2);
+            return;
+        }
+
+        g.drawImage(image, AXIS_MARGIN, 0, width, height, null);
+        g.setColor(Color.BLACK);
+
+        final int rows = frequencies.length;
+        for (int row = 0; row < rows; row += Math.max(1, rows / 6)) {
+            final int y = (int) ((rows - 0.5 - row) * height / rows);
+            g.drawString(String.format("%.0f Hz", frequencies[row]), 2, y + 4);
+        }
+
+        final double seconds = (double) totalSamples / sampleRate;
+        for (int tick = 0; tick <= 5; tick++) {
+            final int x = AXIS_MARGIN + tick * (width - 1) / 5;
+            g.drawString(String.format("%.2f s", seconds * tick / 5), x - 12, height + 15);
+        }
+        g.drawString("Time (s)", AXIS_MARGIN + width / 2 - 20, height + 35);
+    }
+}
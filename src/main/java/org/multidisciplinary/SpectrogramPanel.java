@@ -0,0 +1,295 @@
+package org.multidisciplinary;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+
+/**
+ * Scrolling spectrogram (waterfall) of the live input.
+ * Incoming samples are cut into Hann-windowed frames every {@code hopSize} samples, and each frame's
+ * magnitude spectrum becomes one image column, written into a ring of columns inside a reusable
+ * {@link BufferedImage}; nothing is reallocated or replotted per frame.
+ * Important:
+ * - Magnitudes are mapped straight to colors with a lookup table indexed by the upper bits
+ *   of the float value, so no logarithm is evaluated per bin.
+ * - The on-screen image is kept at display size and scrolled with {@code copyArea};
+ *   only the new columns are drawn into it, and painting blits it without scaling.
+ *   The whole view is only rebuilt from the ring when the panel is resized or cleared.
+ */
+public class SpectrogramPanel extends JPanel {
+
+    private static final int HISTORY = 1024;
+    private static final int ROWS = 256;
+    private static final double MAX_FREQUENCY = 3000;
+    private static final double DYNAMIC_RANGE_DB = 80.0;
+    private static final int AXIS_MARGIN = 50;
+    private static final int DEFAULT_FRAME_SIZE = 1024;
+    private static final int DEFAULT_HOP_SIZE = 256;
+
+    /** Color for every float whose upper 16 bits equal the index; covers all positive finite values. */
+    private static final int[] DB_TO_RGB = buildDbLookup();
+
+    private final BufferedImage image = new BufferedImage(HISTORY, ROWS, BufferedImage.TYPE_INT_RGB);
+    private final int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+    private final Object lock = new Object();
+
+    private int writeColumn = 0;
+    private int[] rowStartBins = new int[0];
+    private int mappedLength = -1;
+    private int mappedSampleRate = -1;
+    // Frequency of the top row: MAX_FREQUENCY, or the Nyquist frequency of a lower-rate source.
+    private volatile double topFrequency = MAX_FREQUENCY;
+
+    // Columns written to the ring but not yet drawn into the view; guarded by lock.
+    private int pendingColumns = 0;
+    private boolean flushScheduled = false;
+
+    // Display-sized view, only touched on the Event Dispatch Thread.
+    private BufferedImage view;
+    private long drawnColumns = 0;
+
+    // Hop framing state, only touched by the thread feeding samples.
+    private final int frameSize;
+    private final int hopSize;
+    private final float[] hann;
+    private final float[] frame;
+    private int frameFill = 0;
+
+    public SpectrogramPanel() {
+        this(DEFAULT_FRAME_SIZE, DEFAULT_HOP_SIZE);
+    }
+
+    /**
+     * @param frameSize The number of samples per FFT frame.
+     * @param hopSize   The number of samples between the starts of consecutive frames, i.e. per column.
+     */
+    public SpectrogramPanel(final int frameSize, final int hopSize) {
+        if (hopSize <= 0 || hopSize > frameSize) {
+            throw new IllegalArgumentException("Hop size must be between 1 and the frame size.");
+        }
+        this.frameSize = frameSize;
+        this.hopSize = hopSize;
+        this.frame = new float[frameSize];
+        this.hann = new float[frameSize];
+        for (int i = 0; i < frameSize; i++) {
+            // Scaled by 2 so the window has unit coherent gain and a full-scale sine still reads 0 dB.
+            hann[i] = (float) (1 - Math.cos(2 * Math.PI * i / frameSize));
+        }
+        setBackground(Color.WHITE);
+        clear();
+    }
+
+    /**
+     * Erases the history and any partially filled frame.
+     */
+    public void clear() {
+        synchronized (lock) {
+            Arrays.fill(pixels, ColorMap.rgbAt(0));
+            writeColumn = 0;
+            pendingColumns = 0;
+        }
+        frameFill = 0;
+        SwingUtilities.invokeLater(() -> {
+            view = null;
+            repaint();
+        });
+    }
+
+    /**
+     * Feeds captured samples; a column is added every {@code hopSize} samples once a frame is full.
+     * Must be called from a single thread, e.g. the recording thread.
+     *
+     * @param samples    The new samples.
+     * @param sampleRate The sampling rate of the samples in Hz.
+     */
+    public void addSamples(final float[] samples, final int sampleRate) {
+        int offset = 0;
+        while (offset < samples.length) {
+            final int count = Math.min(samples.length - offset, frameSize - frameFill);
+            System.arraycopy(samples, offset, frame, frameFill, count);
+            frameFill += count;
+            offset += count;
+            if (frameFill == frameSize) {
+                final float[] windowed = new float[frameSize];
+                for (int i = 0; i < frameSize; i++) {
+                    windowed[i] = frame[i] * hann[i];
+                }
+                addColumn(FFT.computeMagnitude(windowed), sampleRate);
+                System.arraycopy(frame, hopSize, frame, 0, frameSize - hopSize);
+                frameFill = frameSize - hopSize;
+            }
+        }
+    }
+
+    /**
+     * Double-precision variant of {@link #addSamples(float[], int)}.
+     */
+    public void addSamples(final double[] samples, final int sampleRate) {
+        final float[] floats = new float[samples.length];
+        for (int i = 0; i < samples.length; i++) {
+            floats[i] = (float) samples[i];
+        }
+        addSamples(floats, sampleRate);
+    }
+
+    /**
+     * Appends one magnitude spectrum as the newest column. Safe to call from the recording thread.
+     *
+     * @param magnitudes The magnitudes of bins 0..N/2 of an N-point FFT.
+     * @param sampleRate The sampling rate of the analyzed signal in Hz.
+     */
+    public void addColumn(final float[] magnitudes, final int sampleRate) {
+        if (magnitudes.length == 0) return;
+        synchronized (lock) {
+            final int[] starts = rowStartBins(magnitudes.length, sampleRate);
+            final float scale = 1.0f / magnitudes.length; // full-scale sine -> 0 dB
+            for (int row = 0; row < ROWS; row++) {
+                float peak = 0;
+                // Rows narrower than one bin still show the bin they fall into.
+                final int end = Math.max(starts[row] + 1, starts[row + 1]);
+                for (int bin = starts[row]; bin < end; bin++) {
+                    peak = Math.max(peak, magnitudes[bin]);
+                }
+                pixels[(ROWS - 1 - row) * HISTORY + writeColumn] = colorOf(peak * scale);
+            }
+            writeColumn = (writeColumn + 1) % HISTORY;
+            pendingColumns = Math.min(HISTORY, pendingColumns + 1);
+            if (!flushScheduled) {
+                // Coalesce: columns arriving before the EDT gets to this are drawn together.
+                flushScheduled = true;
+                SwingUtilities.invokeLater(this::drawPendingColumns);
+            }
+        }
+    }
+
+    /**
+     * Scrolls the view left and draws only the columns added since the last update.
+     */
+    private void drawPendingColumns() {
+        synchronized (lock) {
+            flushScheduled = false;
+            final int count = pendingColumns;
+            pendingColumns = 0;
+            if (view == null || count == 0) {
+                return;
+            }
+
+            final int width = view.getWidth();
+            final int height = view.getHeight();
+            // Column c spans pixels [c * width / HISTORY, (c + 1) * width / HISTORY) of the view.
+            final int shift = (int) ((drawnColumns + count) * width / HISTORY - drawnColumns * width / HISTORY);
+            drawnColumns += count;
+            if (shift <= 0) {
+                return;
+            }
+
+            final Graphics2D g = view.createGraphics();
+            if (shift < width) {
+                g.copyArea(shift, 0, width - shift, height, -shift, 0);
+            }
+            final int firstNew = Math.floorMod(writeColumn - count, HISTORY);
+            final int strip = Math.min(shift, width);
+            if (firstNew < writeColumn || writeColumn == 0) {
+                g.drawImage(image, width - strip, 0, width, height, firstNew, 0, firstNew + count, ROWS, null);
+            } else {
+                // The new columns wrap around the end of the ring.
+                final int tail = HISTORY - firstNew;
+                final int split = width - strip + strip * tail / count;
+                g.drawImage(image, width - strip, 0, split, height, firstNew, 0, HISTORY, ROWS, null);
+                g.drawImage(image, split, 0, width, height, 0, 0, writeColumn, ROWS, null);
+            }
+            g.dispose();
+            repaint(AXIS_MARGIN, 0, width, height);
+        }
+    }
+
+    @Override
+    protected void paintComponent(final Graphics g) {
+        super.paintComponent(g);
+        final int width = getWidth() - AXIS_MARGIN - 30;
+        final int height = getHeight() - AXIS_MARGIN;
+        if (width <= 0 || height <= 0) return;
+
+        if (view == null || view.getWidth() != width || view.getHeight() != height) {
+            rebuildView(width, height);
+        }
+        g.drawImage(view, AXIS_MARGIN, 0, null);
+
+        g.setColor(Color.BLACK);
+        final double top = topFrequency;
+        for (int tick = 0; tick <= 6; tick++) {
+            final double frequency = top * tick / 6;
+            final int y = height - (int) (frequency / top * (height - 1));
+            g.drawString(String.format("%.0f Hz", frequency), 2, Math.max(10, y + 4));
+        }
+        g.drawString("Time (newest on the right)", AXIS_MARGIN + width / 2 - 70, height + 20);
+    }
+
+    /**
+     * Redraws the whole view from the ring, oldest column on the left; only needed after a resize or clear.
+     */
+    private void rebuildView(final int width, final int height) {
+        synchronized (lock) {
+            view = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            final Graphics2D g = view.createGraphics();
+            // Columns [writeColumn, HISTORY) are the oldest, [0, writeColumn) the newest.
+            final int split = (int) ((long) (HISTORY - writeColumn) * width / HISTORY);
+            g.drawImage(image, 0, 0, split, height, writeColumn, 0, HISTORY, ROWS, null);
+            g.drawImage(image, split, 0, width, height, 0, 0, writeColumn, ROWS, null);
+            g.dispose();
+            pendingColumns = 0;
+            drawnColumns = 0;
+        }
+    }
+
+    /**
+     * Returns, for every row, the first FFT bin it covers (plus one entry past the last row),
+     * recomputed only when the spectrum length or sampling rate changes.
+     * The rows span up to {@link #MAX_FREQUENCY}, or up to the Nyquist frequency if that is lower,
+     * so the top rows never repeat the last bin.
+     */
+    private int[] rowStartBins(final int length, final int sampleRate) {
+        if (length != mappedLength || sampleRate != mappedSampleRate) {
+            final double top = Math.min(MAX_FREQUENCY, sampleRate / 2.0);
+            final double binSize = (double) sampleRate / (length * 2);
+            final int[] starts = new int[ROWS + 1];
+            for (int row = 0; row <= ROWS; row++) {
+                final int bin = (int) Math.round(top * row / ROWS / binSize);
+                starts[row] = Math.min(bin, length - 1);
+            }
+            rowStartBins = starts;
+            mappedLength = length;
+            mappedSampleRate = sampleRate;
+            if (top != topFrequency) {
+                topFrequency = top;
+                // The axis labels are outside the area repainted for new columns.
+                SwingUtilities.invokeLater(this::repaint);
+            }
+        }
+        return rowStartBins;
+    }
+
+    /**
+     * Looks up the color of a non-negative magnitude relative to full scale.
+     */
+    private static int colorOf(final float value) {
+        return DB_TO_RGB[Float.floatToRawIntBits(value) >>> 16 & 0x7FFF];
+    }
+
+    /**
+     * Precomputes the color of every float bucket with the same upper 16 bits
+     * (sign, exponent and 7 mantissa bits), which resolves the level to about 0.05 dB.
+     */
+    private static int[] buildDbLookup() {
+        final int[] lut = new int[1 << 15];
+        for (int bits = 0; bits < lut.length; bits++) {
+            final float value = Float.intBitsToFloat((bits << 16) | 0x8000);
+            final double db = 20 * Math.log10(value);
+            final double level = (db + DYNAMIC_RANGE_DB) / DYNAMIC_RANGE_DB;
+            lut[bits] = Double.isNaN(level) ? ColorMap.rgbAt(ColorMap.SIZE - 1) : ColorMap.rgb(Math.max(0, Math.min(1, level)));
+        }
+        return lut;
+    }
+}
@@ -0,0 +1,194 @@
+package org.multidisciplinary;
+
+import javax.sound.sampled.AudioFormat;
+import java.util.Random;
+
+/**
+ * Sample source that synthesizes a phonocardiogram, for running the live path without a microphone.
+ * Each beat contains:
+ * - S1 and S2, modeled as Gaussian-windowed sinusoids (frequency, duration, amplitude).
+ * - An optional systolic murmur: band-passed noise (about 150-600 Hz) with a crescendo-decrescendo envelope.
+ * - Optional broadband background noise.
+ * The output is 16-bit signed little-endian mono and is fully determined by the settings and the seed,
+ * so a run can be replayed exactly. Settings must be chosen before {@link #open()}.
+ */
+public class SyntheticHeartSource implements SampleSource {
+
+    private float sampleRate = 44100.0F;
+    private double bpm = 72;
+    private double systoleSeconds = Double.NaN;
+    private double s1Frequency = 50, s1Duration = 0.10, s1Amplitude = 0.6;
+    private double s2Frequency = 80, s2Duration = 0.08, s2Amplitude = 0.4;
+    private double murmurLevel = 0;
+    private double noiseLevel = 0.005;
+    private long seed = 0;
+    private double speed = REAL_TIME;
+    private int bufferFrames = -1;
+
+    private Random random;
+    private Pacer pacer;
+    private long sampleIndex;
+    private double period, systole;
+    private double murmurLowCoefficient, murmurHighCoefficient;
+    private double murmurLow, murmurHigh;
+    private volatile boolean open = false;
+
+    public SyntheticHeartSource withSampleRate(final float sampleRate) {
+        this.sampleRate = sampleRate;
+        return this;
+    }
+
+    public SyntheticHeartSource withBpm(final double bpm) {
+        this.bpm = bpm;
+        return this;
+    }
+
+    /**
+     * Sets the S1 to S2 interval. By default it shortens with heart rate, 0.3 s at 60 BPM.
+     */
+    public SyntheticHeartSource withSystole(final double seconds) {
+        this.systoleSeconds = seconds;
+        return this;
+    }
+
+    public SyntheticHeartSource withS1(final double frequency, final double duration, final double amplitude) {
+        this.s1Frequency = frequency;
+        this.s1Duration = duration;
+        this.s1Amplitude = amplitude;
+        return this;
+    }
+
+    public SyntheticHeartSource withS2(final double frequency, final double duration, final double amplitude) {
+        this.s2Frequency = frequency;
+        this.s2Duration = duration;
+        this.s2Amplitude = amplitude;
+        return this;
+    }
+
+    /**
+     * Sets the RMS amplitude of the systolic murmur at its loudest; 0 disables it.
+     */
+    public SyntheticHeartSource withMurmur(final double level) {
+        this.murmurLevel = level;
+        return this;
+    }
+
+    /**
+     * Sets the amplitude of the broadband background noise; 0 disables it.
+     */
+    public SyntheticHeartSource withNoise(final double level) {
+        this.noiseLevel = level;
+        return this;
+    }
+
+    public SyntheticHeartSource withSeed(final long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * Sets how fast samples are delivered relative to real time, e.g. {@link #REAL_TIME} or {@link #UNTHROTTLED}.
+     *
+     * @throws IllegalArgumentException If the speed is not positive.
+     */
+    public SyntheticHeartSource withSpeed(final double speed) {
+        this.speed = Pacer.checkSpeed(speed);
+        return this;
+    }
+
+    /**
+     * Sets the buffer size in frames. The default holds half a second, like a typical capture line.
+     */
+    public SyntheticHeartSource withBufferFrames(final int frames) {
+        this.bufferFrames = frames;
+        return this;
+    }
+
+    @Override
+    public AudioFormat getFormat() {
+        return new AudioFormat(sampleRate, 16, 1, true, false);
+    }
+
+    @Override
+    public int getBufferSize() {
+        final int frames = bufferFrames > 0 ? bufferFrames : (int) (sampleRate / 2);
+        return frames * 2;
+    }
+
+    @Override
+    public void open() {
+        random = new Random(seed);
+        pacer = new Pacer(sampleRate, speed);
+        sampleIndex = 0;
+        period = 60.0 / bpm;
+        systole = Double.isNaN(systoleSeconds) ? 0.3 * Math.sqrt(period) : systoleSeconds;
+        murmurLowCoefficient = lowPassCoefficient(150);
+        murmurHighCoefficient = lowPassCoefficient(600);
+        murmurLow = 0;
+        murmurHigh = 0;
+        open = true;
+    }
+
+    @Override
+    public int read(final byte[] buffer, final int offset, final int length) {
+        if (!open) {
+            return -1;
+        }
+        final int frames = length / 2;
+        pacer.await(frames);
+        for (int i = 0; i < frames; i++) {
+            final double value = Math.max(-1.0, Math.min(1.0, nextSample()));
+            final int sample = (int) Math.round(value * 32767);
+            buffer[offset + 2 * i] = (byte) sample;
+            buffer[offset + 2 * i + 1] = (byte) (sample >> 8);
+        }
+        return frames * 2;
+    }
+
+    @Override
+    public void close() {
+        open = false;
+    }
+
+    /**
+     * Generates the next sample of the heart sound.
+     */
+    private double nextSample() {
+        final double t = sampleIndex++ / (double) sampleRate;
+        final double phase = t % period;
+
+        // Evaluate the sounds of this beat and the next one, so S1 can start before the beat boundary.
+        double value = burst(phase, s1Frequency, s1Duration, s1Amplitude)
+                + burst(phase - period, s1Frequency, s1Duration, s1Amplitude)
+                + burst(phase - systole, s2Frequency, s2Duration, s2Amplitude)
+                + burst(phase - period - systole, s2Frequency, s2Duration, s2Amplitude);
+
+        final double white = random.nextGaussian();
+        if (murmurLevel > 0) {
+            // Difference of two one-pole low-passes: a band-pass between roughly 150 and 600 Hz.
+            murmurLow += murmurLowCoefficient * (white - murmurLow);
+            murmurHigh += murmurHighCoefficient * (white - murmurHigh);
+            final double start = s1Duration / 2;
+            final double end = systole - s2Duration / 2;
+            if (phase > start && phase < end) {
+                final double position = (phase - start) / (end - start);
+                // The band-passed noise has an RMS of about 0.25, hence the factor 4.
+                value += murmurLevel * (1 - Math.abs(2 * position - 1)) * (murmurHigh - murmurLow) * 4;
+            }
+        }
+        return value + noiseLevel * white;
+    }
+
+    /**
+     * A sinusoid under a Gaussian window whose +-3 sigma span equals {@code duration}.
+     */
+    private static double burst(final double t, final double frequency, final double duration, final double amplitude) {
+        final double sigma = duration / 6;
+        if (Math.abs(t) > 3 * sigma) return 0;
+        return amplitude * Math.exp(-0.5 * (t / sigma) * (t / sigma)) * Math.sin(2 * Math.PI * frequency * t);
+    }
+
+    private double lowPassCoefficient(final double cutoff) {
+        return 1 - Math.exp(-2 * Math.PI * cutoff / sampleRate);
+    }
+}
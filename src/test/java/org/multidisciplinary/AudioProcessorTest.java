@@ -0,0 +1,50 @@
+package org.multidisciplinary;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AudioProcessorTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void singlePrecisionReadMatchesDoublePrecisionReadExactly() throws Exception {
+        final int frames = 10_000;
+        final byte[] pcm = new byte[frames * 2];
+        new Random(1).nextBytes(pcm);
+        final AudioFormat format = new AudioFormat(44100, 16, 1, true, false);
+        final File file = tempDir.resolve("noise.wav").toFile();
+        AudioSystem.write(new AudioInputStream(new ByteArrayInputStream(pcm), format, frames),
+                AudioFileFormat.Type.WAVE, file);
+
+        final double[] doubles = AudioProcessor.readWavSamples(file);
+        final float[] floats = AudioProcessor.readWavSamplesFloat(file);
+
+        assertEquals(doubles.length, floats.length);
+        for (int i = 0; i < doubles.length; i++) {
+            assertEquals(doubles[i], floats[i], 0.0, "sample " + i);
+        }
+    }
+
+    @Test
+    void readsSampleRateFromHeader() throws Exception {
+        final AudioFormat format = new AudioFormat(2000, 16, 1, true, false);
+        final File file = tempDir.resolve("pcg.wav").toFile();
+        AudioSystem.write(new AudioInputStream(new ByteArrayInputStream(new byte[200]), format, 100),
+                AudioFileFormat.Type.WAVE, file);
+
+        assertEquals(2000, AudioProcessor.readSampleRate(file));
+    }
+}
@@ -0,0 +1,93 @@
+package org.multidisciplinary;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BandEnergyTrackerTest {
+
+    private static final int SAMPLE_RATE = 4000;
+    private static final int HOP_SIZE = SAMPLE_RATE / 25;
+
+    @Test
+    void toneReportsHalfItsSquaredAmplitudeInItsBand() {
+        final double amplitude = 0.5;
+        final double[] samples = tone(amplitude, 100, 10 * HOP_SIZE);
+
+        final double[][] energies = BandEnergyTracker.scan(samples, SAMPLE_RATE, HOP_SIZE, BandEnergyTracker.pcgBands());
+
+        assertEquals(10, energies[0].length);
+        for (int block = 0; block < energies[0].length; block++) {
+            assertEquals(amplitude * amplitude / 2, energies[0][block], 1e-6, "S1/S2 band, block " + block);
+            assertTrue(energies[1][block] < 1e-9, "murmur band, block " + block);
+        }
+    }
+
+    @Test
+    void resultDoesNotDependOnChunkSize() {
+        final Random random = new Random(3);
+        final double[] samples = new double[20 * HOP_SIZE + 17];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = random.nextGaussian() * 0.1;
+        }
+        final double[][] expected = BandEnergyTracker.scan(samples, SAMPLE_RATE, HOP_SIZE, BandEnergyTracker.pcgBands());
+
+        for (final int chunkSize : new int[] { 1, 37, HOP_SIZE, 1000 }) {
+            final List<double[]> blocks = new ArrayList<>();
+            final BandEnergyTracker tracker = new BandEnergyTracker(SAMPLE_RATE, HOP_SIZE, BandEnergyTracker.pcgBands(),
+                    (end, values) -> blocks.add(values));
+            for (int offset = 0; offset < samples.length; offset += chunkSize) {
+                tracker.process(Arrays.copyOfRange(samples, offset, Math.min(samples.length, offset + chunkSize)));
+            }
+
+            assertEquals(expected[0].length, blocks.size(), "block count for chunk size " + chunkSize);
+            for (int block = 0; block < blocks.size(); block++) {
+                assertArrayEquals(new double[] { expected[0][block], expected[1][block] }, blocks.get(block),
+                        "chunk size " + chunkSize + ", block " + block);
+            }
+        }
+    }
+
+    @Test
+    void thresholdFiresOncePerCrossingBeforeTheBlockEnergies() {
+        // Three quiet blocks, four loud blocks, three quiet blocks.
+        final double[] samples = new double[10 * HOP_SIZE];
+        final double[] loud = tone(0.5, 100, 4 * HOP_SIZE);
+        System.arraycopy(loud, 0, samples, 3 * HOP_SIZE, loud.length);
+
+        final List<String> events = new ArrayList<>();
+        final BandEnergyTracker tracker = new BandEnergyTracker(SAMPLE_RATE, HOP_SIZE, BandEnergyTracker.pcgBands(),
+                new BandEnergyTracker.Listener() {
+                    @Override
+                    public void onEnergies(final long endSample, final double[] energies) {
+                        events.add("block " + endSample / HOP_SIZE);
+                    }
+
+                    @Override
+                    public void onThresholdCrossed(final BandEnergyTracker.Band band, final double energy, final boolean above) {
+                        events.add(band.getName() + (above ? " above" : " below"));
+                    }
+                });
+        tracker.setThreshold(0, 0.01);
+        tracker.process(samples);
+
+        assertEquals(List.of("block 1", "block 2", "block 3",
+                "S1/S2 above", "block 4", "block 5", "block 6", "block 7",
+                "S1/S2 below", "block 8", "block 9", "block 10"), events);
+    }
+
+    private static double[] tone(final double amplitude, final double frequency, final int length) {
+        final double[] samples = new double[length];
+        for (int i = 0; i < length; i++) {
+            samples[i] = amplitude * Math.sin(2 * Math.PI * frequency * i / SAMPLE_RATE);
+        }
+        return samples;
+    }
+}
@@ -0,0 +1,42 @@
+package org.multidisciplinary;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FFTTest {
+
+    /** Tolerance documented on {@link FFT#computeMagnitude(float[])}, relative to the largest bin. */
+    private static final double FLOAT_TOLERANCE = 1e-5;
+
+    @Test
+    void singlePrecisionMatchesDoublePrecision() {
+        for (final int length : new int[] { 0, 1, 3, 1000, 4096, 100_000, 1 << 20 }) {
+            final Random random = new Random(length);
+            final double[] doubles = new double[length];
+            final float[] floats = new float[length];
+            for (int i = 0; i < length; i++) {
+                // 16-bit samples, as produced by AudioProcessor, on top of a tone.
+                final int sample = random.nextInt(65536) - 32768;
+                doubles[i] = 0.5 * Math.sin(i * 0.05) + 0.1 * sample / 32768.0;
+                floats[i] = (float) doubles[i];
+            }
+
+            final double[] expected = FFT.computeMagnitude(doubles);
+            final float[] actual = FFT.computeMagnitude(floats);
+
+            assertEquals(expected.length, actual.length, "bin count for length " + length);
+            double peak = 0;
+            double error = 0;
+            for (int i = 0; i < expected.length; i++) {
+                peak = Math.max(peak, expected[i]);
+                error = Math.max(error, Math.abs(expected[i] - actual[i]));
+            }
+            assertTrue(error <= FLOAT_TOLERANCE * peak,
+                    "length " + length + ": error " + error + " exceeds tolerance for peak " + peak);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package org.multidisciplinary;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FileReplaySourceTest {
+
+    private static final int FRAMES = 4410;
+
+    @TempDir
+    Path tempDir;
+
+    private File writeWav(final String name, final int sampleSizeInBits) throws Exception {
+        final AudioFormat format = new AudioFormat(44100, sampleSizeInBits, 1, true, false);
+        final byte[] pcm = new byte[FRAMES * format.getFrameSize()];
+        for (int i = 0; i < pcm.length; i++) {
+            pcm[i] = (byte) i;
+        }
+        final File file = tempDir.resolve(name).toFile();
+        AudioSystem.write(new AudioInputStream(new ByteArrayInputStream(pcm), format, FRAMES),
+                AudioFileFormat.Type.WAVE, file);
+        return file;
+    }
+
+    @Test
+    void returnsEndOfStreamAfterLastFrame() throws Exception {
+        final FileReplaySource source = new FileReplaySource(writeWav("tone.wav", 16), SampleSource.UNTHROTTLED, false);
+        source.open();
+        final byte[] buffer = new byte[1000];
+        int total = 0;
+        int bytesRead;
+        while ((bytesRead = source.read(buffer, 0, buffer.length)) >= 0) {
+            total += bytesRead;
+        }
+        source.close();
+        assertEquals(FRAMES * 2, total);
+        assertEquals(-1, source.read(buffer, 0, buffer.length));
+    }
+
+    @Test
+    void loopingReplayRestartsAtEndOfFile() throws Exception {
+        final FileReplaySource source = new FileReplaySource(writeWav("tone.wav", 16), SampleSource.UNTHROTTLED, true);
+        source.open();
+        final byte[] buffer = new byte[1000];
+        int total = 0;
+        while (total < FRAMES * 2 * 3) {
+            final int bytesRead = source.read(buffer, 0, buffer.length);
+            assertTrue(bytesRead > 0, "looping source ended");
+            total += bytesRead;
+        }
+        source.close();
+    }
+
+    @Test
+    void rejectsSampleSizesTheRecorderCannotDecode() throws Exception {
+        final File file = writeWav("wide.wav", 24);
+        assertThrows(UnsupportedAudioFileException.class,
+                () -> new FileReplaySource(file, SampleSource.UNTHROTTLED, false));
+    }
+
+    @Test
+    void recorderDeliversWholeFileAndReportsEnd() throws Exception {
+        final AtomicInteger samples = new AtomicInteger();
+        final CountDownLatch ended = new CountDownLatch(1);
+        final AudioRecorder recorder = AudioRecorder.singlePrecision(chunk -> samples.addAndGet(chunk.length));
+        recorder.startRecording(new FileReplaySource(writeWav("tone.wav", 16), SampleSource.UNTHROTTLED, false),
+                ended::countDown);
+
+        assertTrue(ended.await(10, TimeUnit.SECONDS), "end of stream was not reported");
+        recorder.stopRecording();
+        assertEquals(FRAMES, samples.get());
+    }
+}
@@ -0,0 +1,96 @@
+package org.multidisciplinary;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ScalogramTest {
+
+    private static final int SAMPLE_RATE = 4000;
+    private static final double[] FREQUENCIES = Scalogram.logFrequencies(20, 800, 16);
+
+    /** Largest difference allowed between the chunked and the one-pass transform. */
+    private static final double CHUNK_TOLERANCE = 5e-6;
+
+    @Test
+    void chunkedOutputMatchesOnePass() {
+        final float[] samples = heartLikeSignal(3 * SAMPLE_RATE);
+        final float[][] expected = Scalogram.compute(samples, SAMPLE_RATE, FREQUENCIES);
+
+        final float[][] chunked = new float[FREQUENCIES.length][samples.length];
+        Scalogram.computeChunked(samples, SAMPLE_RATE, FREQUENCIES, 2000, collectInto(chunked));
+        assertClose(expected, chunked);
+
+        final double[] doubles = new double[samples.length];
+        for (int i = 0; i < samples.length; i++) {
+            doubles[i] = samples[i];
+        }
+        final float[][] chunkedDoubles = new float[FREQUENCIES.length][samples.length];
+        Scalogram.computeChunked(doubles, SAMPLE_RATE, FREQUENCIES, 2000, collectInto(chunkedDoubles));
+        assertClose(expected, chunkedDoubles);
+    }
+
+    @Test
+    void streamingOutputMatchesOnePassForUnevenPushes() {
+        final float[] samples = heartLikeSignal(3 * SAMPLE_RATE);
+        final float[][] expected = Scalogram.compute(samples, SAMPLE_RATE, FREQUENCIES);
+
+        final float[][] streamed = new float[FREQUENCIES.length][samples.length];
+        final Scalogram.Streaming streaming = new Scalogram.Streaming(SAMPLE_RATE, FREQUENCIES, 1500, collectInto(streamed));
+        for (int offset = 0; offset < samples.length; offset += 777) {
+            streaming.push(samples, offset, Math.min(777, samples.length - offset));
+        }
+        streaming.flush();
+        assertClose(expected, streamed);
+    }
+
+    @Test
+    void toneReadsItsAmplitudeInItsRow() {
+        final double amplitude = 0.5;
+        final double[] frequencies = { 50, 100, 200 };
+        final float[] samples = new float[2 * SAMPLE_RATE];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = (float) (amplitude * Math.sin(2 * Math.PI * 100 * i / SAMPLE_RATE));
+        }
+
+        final float[][] magnitudes = Scalogram.compute(samples, SAMPLE_RATE, frequencies);
+
+        // Away from the edges, where the wavelet does not overhang the signal.
+        for (int i = SAMPLE_RATE / 2; i < 3 * SAMPLE_RATE / 2; i++) {
+            assertEquals(amplitude, magnitudes[1][i], 0.02 * amplitude, "column " + i);
+        }
+    }
+
+    /**
+     * Two short bursts per second on top of noise, which exercises both transients and the noise floor.
+     */
+    private static float[] heartLikeSignal(final int length) {
+        final Random random = new Random(7);
+        final float[] samples = new float[length];
+        for (int i = 0; i < length; i++) {
+            final double t = (double) i / SAMPLE_RATE;
+            final double s1 = Math.exp(-Math.pow((t % 1.0 - 0.1) / 0.02, 2)) * Math.sin(2 * Math.PI * 50 * t);
+            final double s2 = Math.exp(-Math.pow((t % 1.0 - 0.4) / 0.015, 2)) * Math.sin(2 * Math.PI * 80 * t);
+            samples[i] = (float) (0.6 * s1 + 0.4 * s2 + 0.01 * random.nextGaussian());
+        }
+        return samples;
+    }
+
+    private static Scalogram.Listener collectInto(final float[][] target) {
+        return (startSample, magnitudes) -> {
+            for (int row = 0; row < magnitudes.length; row++) {
+                System.arraycopy(magnitudes[row], 0, target[row], startSample, magnitudes[row].length);
+            }
+        };
+    }
+
+    private static void assertClose(final float[][] expected, final float[][] actual) {
+        for (int row = 0; row < expected.length; row++) {
+            for (int i = 0; i < expected[row].length; i++) {
+                assertEquals(expected[row][i], actual[row][i], CHUNK_TOLERANCE, "row " + row + ", column " + i);
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package org.multidisciplinary;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SyntheticHeartSourceTest {
+
+    private static byte[] generate(final long seed, final int bytes) {
+        final SyntheticHeartSource source = new SyntheticHeartSource()
+                .withMurmur(0.1)
+                .withSeed(seed)
+                .withSpeed(SampleSource.UNTHROTTLED);
+        source.open();
+        final byte[] buffer = new byte[bytes];
+        for (int offset = 0; offset < bytes; ) {
+            offset += source.read(buffer, offset, Math.min(4410, bytes - offset));
+        }
+        source.close();
+        return buffer;
+    }
+
+    @Test
+    void sameSeedProducesIdenticalSamples() {
+        assertArrayEquals(generate(3, 88200), generate(3, 88200));
+    }
+
+    @Test
+    void differentSeedsProduceDifferentNoise() {
+        assertFalse(Arrays.equals(generate(3, 88200), generate(4, 88200)));
+    }
+
+    @Test
+    void readReturnsEndOfStreamAfterClose() {
+        final SyntheticHeartSource source = new SyntheticHeartSource().withSpeed(SampleSource.UNTHROTTLED);
+        source.open();
+        source.close();
+        assertEquals(-1, source.read(new byte[1024], 0, 1024));
+    }
+
+    @Test
+    void rejectsSpeedsThatAreNotPositive() {
+        for (final double speed : new double[] { 0, -1, Double.NaN, Double.NEGATIVE_INFINITY }) {
+            assertThrows(IllegalArgumentException.class, () -> new SyntheticHeartSource().withSpeed(speed),
+                    "speed " + speed);
+        }
+    }
+}